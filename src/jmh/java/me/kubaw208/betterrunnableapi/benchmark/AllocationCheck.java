@@ -0,0 +1,116 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterAsyncDelayedRunnable;
+import me.kubaw208.betterrunnableapi.BetterAsyncRunnable;
+import me.kubaw208.betterrunnableapi.BetterDelayedRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterTaskDispatcher;
+import me.kubaw208.betterrunnableapi.BetterTaskRegistry;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts bytes allocated by the main thread in steady-state execution, pause and restart cycles of tasks driven by the dispatcher
+ * and fails if any of them allocates. Cycles are warmed up first, so the JIT and lazily created structures don't count.
+ * Asynchronous tasks are never dispatched and schedule a new scheduler task on every unpause,
+ * so bytes allocated by the in-memory scheduler for that task are measured separately and excluded from their cycles.
+ * <br><br>
+ * Run with {@code ./gradlew allocations}.
+ */
+public final class AllocationCheck {
+
+    private static final int WARM_UP_CYCLES = 200_000;
+    private static final int CYCLES = 100_000;
+    private static final int ROUNDS = 5;
+
+    private final StandInServer server = StandInServer.get();
+    private final JavaPlugin plugin = server.getPlugin();
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().getId();
+    private long counter = 0;
+    private boolean failed = false;
+
+    public static void main(String[] args) {
+        var check = new AllocationCheck();
+
+        BetterTaskDispatcher.enable(check.plugin);
+
+        var runnable = new BetterRunnable(check.plugin, task -> check.counter++, 1);
+        var delayedRunnable = new BetterDelayedRunnable(check.plugin, task -> check.counter++, 1);
+
+        check.measure("execution every tick", check.server::tick);
+        check.measure("pause and unpause", () -> {
+            runnable.pause();
+            runnable.unpause();
+        });
+        check.measure("restart of a delayed task", () -> {
+            delayedRunnable.restart(1);
+            check.server.tick();
+        });
+
+        var asyncRunnable = new BetterAsyncRunnable(check.plugin, task -> check.counter++, 1);
+        var asyncDelayedRunnable = new BetterAsyncDelayedRunnable(check.plugin, task -> check.counter++, 100);
+        Runnable action = () -> check.counter++;
+        long scheduled = check.allocated(() -> check.server.getScheduler().runTaskLaterAsynchronously(check.plugin, action, 1).cancel());
+
+        check.measure("async pause and unpause", scheduled, () -> {
+            asyncRunnable.pause();
+            asyncRunnable.unpause();
+        });
+        check.measure("async delayed pause and unpause", scheduled, () -> {
+            asyncDelayedRunnable.pause();
+            asyncDelayedRunnable.unpause();
+        });
+
+        BetterTaskRegistry.stopAll(check.plugin);
+        BetterTaskDispatcher.disable(check.plugin);
+        check.server.reset();
+
+        if(check.failed)
+            System.exit(1);
+    }
+
+    /**
+     * Runs the cycle after a warm-up and prints the lowest number of bytes allocated per round.
+     */
+    private void measure(String name, Runnable cycle) {
+        measure(name, 0, cycle);
+    }
+
+    /**
+     * Runs the cycle after a warm-up and prints the lowest number of bytes allocated per round by the library.
+     * @param scheduled bytes allocated per round by the scheduler for a task scheduled once per cycle, which are not counted.
+     */
+    private void measure(String name, long scheduled, Runnable cycle) {
+        long allocated = allocated(cycle) - scheduled;
+        boolean allocates = allocated > 0;
+
+        System.out.printf("%-32s %8d B per %d cycles%s%n", name, Math.max(0, allocated), CYCLES, allocates ? " ALLOCATES" : "");
+
+        if(allocates)
+            failed = true;
+    }
+
+    /**
+     * Runs the cycle after a warm-up and returns the lowest number of bytes allocated per round.
+     */
+    private long allocated(Runnable cycle) {
+        for(int i = 0; i < WARM_UP_CYCLES; i++)
+            cycle.run();
+
+        long allocated = Long.MAX_VALUE;
+
+        for(int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+
+            for(int i = 0; i < CYCLES; i++)
+                cycle.run();
+
+            allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        return allocated;
+    }
+
+}
@@ -0,0 +1,63 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterTask;
+import me.kubaw208.betterrunnableapi.BetterTaskMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of executing a task compared to calling a raw {@link Runnable}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExecutionOverheadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private StandInServer server;
+    private Runnable runnable;
+    private BetterTask task;
+    private long counter = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StandInServer.get();
+        runnable = () -> counter++;
+        task = new BetterRunnable(server.getPlugin(), task -> counter++, 20);
+
+        BetterTaskMetrics.setEnabled(metrics);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        task.stop();
+        server.reset();
+        BetterTaskMetrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public long rawRunnable() {
+        runnable.run();
+        return counter;
+    }
+
+    @Benchmark
+    public long betterRunnable() {
+        task.execute();
+        return counter;
+    }
+
+}
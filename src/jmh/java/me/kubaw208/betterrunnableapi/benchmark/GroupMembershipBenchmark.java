@@ -0,0 +1,83 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnableGroup;
+import me.kubaw208.betterrunnableapi.BetterTask;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding tasks to groups and removing them again, for running and paused groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GroupMembershipBenchmark {
+
+    @Param({"1000"})
+    private int tasks;
+
+    @Param({"4"})
+    private int groupsPerTask;
+
+    @Param({"false", "true"})
+    private boolean paused;
+
+    private StandInServer server;
+    private BetterTask[] created;
+    private BetterRunnableGroup[] groups;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StandInServer.get();
+
+        JavaPlugin plugin = server.getPlugin();
+
+        created = new BetterTask[tasks];
+        groups = new BetterRunnableGroup[groupsPerTask];
+
+        for(int i = 0; i < groupsPerTask; i++) {
+            groups[i] = new BetterRunnableGroup();
+
+            if(paused)
+                groups[i].pauseAll();
+        }
+
+        for(int i = 0; i < tasks; i++)
+            created[i] = new BetterRunnable(plugin, task -> {}, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for(BetterTask task : created)
+            task.stop();
+
+        server.reset();
+    }
+
+    @Benchmark
+    public BetterTask addAndRemove() {
+        BetterTask task = created[next++ % tasks];
+
+        for(BetterRunnableGroup group : groups)
+            group.addTask(task);
+
+        for(BetterRunnableGroup group : groups)
+            group.removeTask(task);
+
+        return task;
+    }
+
+}
@@ -0,0 +1,86 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnableGroup;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pausing deep (chain of groups) and wide (one group with many children) group hierarchies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroupPauseBenchmark {
+
+    @Param({"deep", "wide"})
+    private String shape;
+
+    @Param({"100"})
+    private int groups;
+
+    @Param({"50"})
+    private int tasksPerGroup;
+
+    private StandInServer server;
+    private BetterRunnableGroup root;
+    private BetterRunnableGroup pausedParent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StandInServer.get();
+
+        JavaPlugin plugin = server.getPlugin();
+        BetterRunnableGroup parent = null;
+
+        for(int i = 0; i < groups; i++) {
+            var group = new BetterRunnableGroup();
+
+            for(int j = 0; j < tasksPerGroup; j++)
+                new BetterRunnable(plugin, group, task -> {}, 20);
+
+            if(parent == null)
+                root = group;
+            else
+                parent.addChildGroup(group);
+
+            if(parent == null || shape.equals("deep"))
+                parent = group;
+        }
+
+        pausedParent = new BetterRunnableGroup().pauseAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        root.stopAll();
+        server.reset();
+    }
+
+    @Benchmark
+    public BetterRunnableGroup pauseAndUnpauseAll() {
+        root.pauseAll();
+        return root.unpauseAll();
+    }
+
+    /**
+     * Attaching the hierarchy to a paused group propagates soft pause through the whole hierarchy and back.
+     */
+    @Benchmark
+    public BetterRunnableGroup propagateParentPause() {
+        pausedParent.addChildGroup(root);
+        return pausedParent.removeChildGroup(root);
+    }
+
+}
@@ -0,0 +1,74 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterDelayedRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterTaskDispatcher;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state execution, pause and restart cycles of tasks driven by the dispatcher.
+ * These paths should not allocate, which can be checked with the GC profiler:
+ * <pre>./gradlew jmh -PjmhIncludes=PauseCycleBenchmark -PjmhProfilers=gc</pre>
+ * and gc.alloc.rate.norm close to 0 B/op.
+ * {@code ./gradlew allocations} fails if any of these paths allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PauseCycleBenchmark {
+
+    private StandInServer server;
+    private JavaPlugin plugin;
+    private BetterRunnable runnable;
+    private BetterDelayedRunnable delayedRunnable;
+    private long counter = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = StandInServer.get();
+        plugin = server.getPlugin();
+        BetterTaskDispatcher.enable(plugin);
+        runnable = new BetterRunnable(plugin, task -> counter++, 1);
+        delayedRunnable = new BetterDelayedRunnable(plugin, task -> counter++, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runnable.stop();
+        delayedRunnable.stop();
+        BetterTaskDispatcher.disable(plugin);
+        server.reset();
+    }
+
+    @Benchmark
+    public long executeEveryTick() {
+        server.tick();
+        return counter;
+    }
+
+    @Benchmark
+    public long pauseAndUnpause() {
+        runnable.pause();
+        runnable.unpause();
+        return counter;
+    }
+
+    @Benchmark
+    public long restartDelayed() {
+        delayedRunnable.restart(1);
+        server.tick();
+        return counter;
+    }
+
+}
@@ -0,0 +1,94 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterDebouncer;
+import me.kubaw208.betterrunnableapi.BetterTaskRegistry;
+import me.kubaw208.betterrunnableapi.BetterThrottler;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that debouncers and throttlers keep working after their pooled timers are stopped from outside
+ * and taken from the pool by another key. Fails if an action runs for a wrong key or is lost.
+ * <br><br>
+ * Run with {@code ./gradlew pooledTimers}.
+ */
+public final class PooledTimersCheck {
+
+    private final StandInServer server = StandInServer.get();
+    private final JavaPlugin plugin = server.getPlugin();
+    private boolean failed = false;
+
+    public static void main(String[] args) {
+        var check = new PooledTimersCheck();
+
+        check.debouncer();
+        check.throttler();
+
+        if(check.failed)
+            System.exit(1);
+    }
+
+    private void debouncer() {
+        List<String> fired = new ArrayList<>();
+        var debouncer = new BetterDebouncer<String>(plugin, 5, fired::add);
+
+        debouncer.trigger("a");
+        BetterTaskRegistry.stopAll(plugin);
+
+        // "b" takes the timer stopped under "a" from the pool
+        debouncer.trigger("b");
+        debouncer.trigger("a");
+        ticks(10);
+
+        expect("debouncer fires both keys once", List.of("b", "a"), fired);
+        expect("debouncer has no pending keys", 0, debouncer.getPendingKeys());
+
+        fired.clear();
+        debouncer.trigger("c");
+        BetterTaskRegistry.stopAll(plugin);
+
+        expect("debouncer doesn't report stopped key as pending", false, debouncer.isPending("c"));
+        expect("debouncer doesn't cancel timer of another key", false, debouncer.cancel("c"));
+        reset();
+    }
+
+    private void throttler() {
+        List<String> executed = new ArrayList<>();
+        var throttler = new BetterThrottler<String>(plugin, 5, executed::add);
+
+        throttler.trigger("a");
+        throttler.trigger("a");
+        BetterTaskRegistry.stopAll(plugin);
+
+        // "b" takes the window timer stopped under "a" from the pool
+        throttler.trigger("b");
+        throttler.trigger("a");
+        ticks(20);
+
+        expect("throttler executes keys without mixing them", List.of("a", "b", "a"), executed);
+        expect("throttler has no open windows", 0, throttler.getThrottledKeys());
+        reset();
+    }
+
+    private void ticks(int ticks) {
+        for(int i = 0; i < ticks; i++)
+            server.tick();
+    }
+
+    private void reset() {
+        BetterTaskRegistry.stopAll(plugin);
+        server.reset();
+    }
+
+    private void expect(String name, Object expected, Object actual) {
+        boolean passed = expected.equals(actual);
+
+        System.out.printf("%-52s %s%n", name, passed ? "OK" : "FAILED (expected " + expected + ", got " + actual + ")");
+
+        if(!passed)
+            failed = true;
+    }
+
+}
@@ -0,0 +1,106 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.scheduler.InMemoryTaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Minimal stand-in of the Bukkit server, so benchmarks can run without a running server.
+ * The server only exists to construct a plugin. All scheduling goes through an {@link InMemoryTaskScheduler}
+ * installed as the default scheduler of the library.
+ */
+final class StandInServer {
+
+    private static StandInServer instance;
+
+    private final Logger logger = Logger.getLogger("StandInServer");
+    private final InMemoryTaskScheduler scheduler = new InMemoryTaskScheduler();
+    private final JavaPlugin plugin;
+
+    private StandInServer() {
+        Server server = (Server) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Server.class}, (proxy, method, args) -> invokeServer(method));
+
+        Bukkit.setServer(server);
+        TaskSchedulers.setDefault(scheduler);
+        plugin = new BenchmarkPlugin(new JavaPluginLoader(server));
+    }
+
+    /**
+     * Returns the stand-in installed as Bukkit server. Installs it on the first call.
+     */
+    static synchronized StandInServer get() {
+        if(instance == null)
+            instance = new StandInServer();
+        return instance;
+    }
+
+    JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    InMemoryTaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    int getPendingTasks() {
+        return scheduler.getPendingTasks();
+    }
+
+    /**
+     * Moves the scheduler forward by one tick and executes all due tasks.
+     */
+    void tick() {
+        scheduler.tick();
+    }
+
+    /**
+     * Cancels all tasks, so state doesn't leak between benchmark iterations.
+     */
+    void reset() {
+        scheduler.cancelAll();
+    }
+
+    private Object invokeServer(Method method) {
+        return switch(method.getName()) {
+            case "getLogger" -> logger;
+            case "getName", "getVersion", "getBukkitVersion" -> "StandIn";
+            case "isPrimaryThread" -> scheduler.isPrimaryThread();
+            case "getCurrentTick" -> scheduler.getCurrentTick();
+            case "hashCode" -> System.identityHashCode(this);
+            case "equals" -> false;
+            case "toString" -> "StandInServer";
+            default -> defaultValue(method.getReturnType());
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if(type == boolean.class) return false;
+        if(type == int.class) return 0;
+        if(type == long.class) return 0L;
+        if(type == double.class) return 0D;
+        if(type == float.class) return 0F;
+        return null;
+    }
+
+    /**
+     * Plugin created with the initialization constructor that Bukkit provides for use outside a running server.
+     */
+    static final class BenchmarkPlugin extends JavaPlugin {
+
+        private BenchmarkPlugin(JavaPluginLoader loader) {
+            super(loader, new PluginDescriptionFile("Benchmark", "1.0", BenchmarkPlugin.class.getName()), new File("build/jmh-plugin"), new File("build/jmh-plugin.jar"));
+            setEnabled(true);
+        }
+
+    }
+
+}
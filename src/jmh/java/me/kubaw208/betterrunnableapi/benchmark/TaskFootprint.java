@@ -0,0 +1,76 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterAsyncDelayedRunnable;
+import me.kubaw208.betterrunnableapi.BetterAsyncRunnable;
+import me.kubaw208.betterrunnableapi.BetterDelayedRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnableGroup;
+import me.kubaw208.betterrunnableapi.BetterTask;
+import me.kubaw208.betterrunnableapi.BetterTaskRegistry;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.function.Function;
+
+/**
+ * Measures retained memory of idle scheduled tasks with JOL and fails if a type of task exceeds its budget.
+ * Size of a task includes everything reachable only through the task, including its entry in the in-memory scheduler.
+ * <br><br>
+ * Run with {@code ./gradlew footprint}.
+ */
+public final class TaskFootprint {
+
+    private static final int TASKS = 10_000;
+
+    private final StandInServer server = StandInServer.get();
+    private final JavaPlugin plugin = server.getPlugin();
+    private boolean failed = false;
+
+    public static void main(String[] args) {
+        var footprint = new TaskFootprint();
+
+        footprint.measure("BetterRunnable", 240, plugin -> new BetterRunnable(plugin, task -> {}, 20));
+        footprint.measure("BetterDelayedRunnable", 200, plugin -> new BetterDelayedRunnable(plugin, task -> {}, 20));
+        footprint.measure("BetterAsyncRunnable", 260, plugin -> new BetterAsyncRunnable(plugin, task -> {}, 20));
+        footprint.measure("BetterAsyncDelayedRunnable", 220, plugin -> new BetterAsyncDelayedRunnable(plugin, task -> {}, 20));
+
+        var group = new BetterRunnableGroup();
+
+        footprint.measure("BetterRunnable in a group", 320, plugin -> new BetterRunnable(plugin, group, task -> {}, 0, 20));
+
+        if(footprint.failed)
+            System.exit(1);
+    }
+
+    /**
+     * Creates tasks of one type and prints their average retained size.
+     * @param budget maximal average size of a task in bytes.
+     */
+    private void measure(String name, long budget, Function<JavaPlugin, BetterTask> factory) {
+        var tasks = new BetterTask[TASKS];
+        long before = retainedSize(tasks);
+
+        for(int i = 0; i < TASKS; i++)
+            tasks[i] = factory.apply(plugin);
+
+        long perTask = (retainedSize(tasks) - before) / TASKS;
+        boolean overBudget = perTask > budget;
+
+        System.out.printf("%-28s %5d B/task (budget %d B)%s%n", name, perTask, budget, overBudget ? " OVER BUDGET" : "");
+
+        if(overBudget)
+            failed = true;
+
+        BetterTaskRegistry.stopAll(plugin);
+        server.reset();
+    }
+
+    /**
+     * Size of everything reachable from the plugin, its scheduler, its registry and given tasks.
+     */
+    private long retainedSize(BetterTask[] tasks) {
+        return GraphLayout.parseInstance(plugin, TaskSchedulers.get(plugin), BetterTaskRegistry.of(plugin), tasks).totalSize();
+    }
+
+}
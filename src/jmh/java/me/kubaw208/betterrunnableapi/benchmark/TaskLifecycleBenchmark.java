@@ -0,0 +1,90 @@
+package me.kubaw208.betterrunnableapi.benchmark;
+
+import me.kubaw208.betterrunnableapi.BetterRunnable;
+import me.kubaw208.betterrunnableapi.BetterRunnableGroup;
+import me.kubaw208.betterrunnableapi.BetterTask;
+import me.kubaw208.betterrunnableapi.BetterTaskDispatcher;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating, starting and stopping many tasks, with and without the dispatcher.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskLifecycleBenchmark {
+
+    @Param({"1000", "10000"})
+    private int tasks;
+
+    @Param({"false", "true"})
+    private boolean dispatcher;
+
+    private StandInServer server;
+    private JavaPlugin plugin;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        server = StandInServer.get();
+        plugin = server.getPlugin();
+
+        if(dispatcher)
+            BetterTaskDispatcher.enable(plugin);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        BetterTaskDispatcher.disable(plugin);
+        server.reset();
+    }
+
+    @Benchmark
+    public BetterTask[] startAndStop() {
+        var created = new BetterTask[tasks];
+
+        for(int i = 0; i < tasks; i++)
+            created[i] = new BetterRunnable(plugin, task -> {}, 20);
+
+        for(BetterTask task : created)
+            task.stop();
+
+        return created;
+    }
+
+    @Benchmark
+    public BetterRunnableGroup startAndStopAll() {
+        var group = new BetterRunnableGroup();
+
+        for(int i = 0; i < tasks; i++)
+            new BetterRunnable(plugin, group, task -> {}, 20);
+
+        return group.stopAll();
+    }
+
+    @Benchmark
+    public int startRunAndStop() {
+        var group = new BetterRunnableGroup();
+
+        for(int i = 0; i < tasks; i++)
+            new BetterRunnable(plugin, group, task -> {}, 1 + i % 20);
+
+        for(int tick = 0; tick < 20; tick++)
+            server.tick();
+
+        group.stopAll();
+        return server.getPendingTasks();
+    }
+
+}
@@ -0,0 +1,80 @@
+package me.kubaw208.betterrunnableapi;
+
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+
+/**
+ * Stretches intervals of adaptive tasks when the server is overloaded.
+ * Load is measured from the average tick time (MSPT) of the server. Below {@link #getStretchFromMspt()}, adaptive tasks run at their normal interval.
+ * Between that and {@link #getMaxStretchAtMspt()}, their interval grows linearly up to their maximal interval in steps of 1/8 of the range,
+ * so small MSPT changes don't reschedule tasks. Once the load drops, intervals return to normal.
+ *
+ * @see BetterRunnable#setAdaptiveInterval(long)
+ * @see BetterRunnableGroup#setAdaptiveInterval(double)
+ */
+public final class BetterAdaptiveIntervals {
+
+    private static final int STEPS = 8;
+
+    private static volatile double stretchFromMspt = 40;
+    private static volatile double maxStretchAtMspt = 75;
+    private static volatile LoadSample sample = null;
+
+    private BetterAdaptiveIntervals() {}
+
+    /**
+     * MSPT above which adaptive intervals start stretching.
+     */
+    public static double getStretchFromMspt() {
+        return stretchFromMspt;
+    }
+
+    /**
+     * MSPT at which adaptive intervals reach their maximum.
+     */
+    public static double getMaxStretchAtMspt() {
+        return maxStretchAtMspt;
+    }
+
+    /**
+     * Sets MSPT range in which adaptive intervals are stretched.
+     * @param stretchFromMspt MSPT above which intervals start stretching (default: 40).
+     * @param maxStretchAtMspt MSPT at which intervals reach their maximum (default: 75).
+     */
+    public static void setThresholds(double stretchFromMspt, double maxStretchAtMspt) {
+        if(maxStretchAtMspt <= stretchFromMspt)
+            throw new IllegalArgumentException("maxStretchAtMspt must be greater than stretchFromMspt");
+
+        BetterAdaptiveIntervals.stretchFromMspt = stretchFromMspt;
+        BetterAdaptiveIntervals.maxStretchAtMspt = maxStretchAtMspt;
+        sample = null;
+    }
+
+    /**
+     * Returns current load of the server used for stretching, from 0 (intervals are normal) to 1 (intervals are at their maximum).
+     * Load is measured at most once per tick.
+     */
+    public static double getLoad(TaskScheduler scheduler) {
+        int currentTick = scheduler.getCurrentTick();
+        var sample = BetterAdaptiveIntervals.sample;
+
+        if(sample != null && sample.scheduler == scheduler && sample.tick == currentTick) return sample.load;
+
+        double load = (scheduler.getAverageTickTime() - stretchFromMspt) / (maxStretchAtMspt - stretchFromMspt);
+
+        load = Math.floor(Math.min(1, Math.max(0, load)) * STEPS) / STEPS;
+        BetterAdaptiveIntervals.sample = new LoadSample(scheduler, currentTick, load);
+        return load;
+    }
+
+    /**
+     * Returns interval between given minimum and maximum that matches current load of the server.
+     */
+    static long stretch(TaskScheduler scheduler, long minInterval, long maxInterval) {
+        if(maxInterval <= minInterval) return minInterval;
+
+        return minInterval + Math.round((maxInterval - minInterval) * getLoad(scheduler));
+    }
+
+    private record LoadSample(TaskScheduler scheduler, int tick, double load) {}
+
+}
@@ -1,10 +1,11 @@
 package me.kubaw208.betterrunnableapi;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import org.bukkit.Bukkit;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -14,7 +15,9 @@ import java.util.function.Consumer;
 @Getter
 public class BetterAsyncDelayedRunnable extends BetterDelayedRunnable {
 
-    private BukkitTask runnableID;
+    private Executor executor;
+    @Getter(AccessLevel.NONE) private Executor scheduledExecutor;
+    @Getter(AccessLevel.NONE) private Runnable executorAction;
 
     /**
      * Creates a new asynchronous delayed task executed only once after given delay.
@@ -31,6 +34,21 @@ public class BetterAsyncDelayedRunnable extends BetterDelayedRunnable {
         super(plugin, task, delay);
     }
 
+    /**
+     * Creates a new asynchronous delayed task with a priority. Priority of asynchronous tasks is informative only, because they are never dispatched.
+     * @see BetterDelayedRunnable#BetterDelayedRunnable(JavaPlugin, TaskPriority, BetterRunnableGroup, Consumer, long)
+     */
+    public BetterAsyncDelayedRunnable(JavaPlugin plugin, TaskPriority priority, BetterRunnableGroup group, Consumer<BetterTask> task, long delay) {
+        super(plugin, priority, group, task, delay);
+    }
+
+    /**
+     * Creates a stopped task owned by a pool.
+     */
+    BetterAsyncDelayedRunnable(JavaPlugin plugin, BetterDelayedTaskPool pool) {
+        super(plugin, pool);
+    }
+
     @Override
     public boolean isAsync() {
         return true;
@@ -38,13 +56,63 @@ public class BetterAsyncDelayedRunnable extends BetterDelayedRunnable {
 
     @Override
     public void start() {
-        runnableID = Bukkit.getScheduler().runTaskLaterAsynchronously(
-                getPlugin(),
-                this::execute,
-                (getDelay() - passedTime)
-        );
-        taskStartedTime = System.currentTimeMillis();
+        long remainingDelay = Math.max(0, getDelay() - passedTime);
+
+        schedule(isStopped ? rampDelay(remainingDelay) : remainingDelay);
+        taskStartedTime = scheduler.currentTimeMillis();
         isStopped = false;
+        register();
+    }
+
+    @Override
+    void schedule(long delay) {
+        var executor = getExecutor();
+
+        planExecution(delay);
+
+        if(executor == null) {
+            taskID = scheduler.runTaskLaterAsynchronously(
+                    getPlugin(),
+                    executeAction,
+                    delay
+            ).getTaskId();
+            return;
+        }
+
+        taskID = scheduler.runTaskLater(
+                getPlugin(),
+                executorAction(executor),
+                delay
+        ).getTaskId();
+    }
+
+    /**
+     * Returns action that hands execution over to given executor. Action is created once and reused by later schedules.
+     */
+    private Runnable executorAction(Executor executor) {
+        scheduledExecutor = executor;
+
+        if(executorAction == null)
+            executorAction = () -> scheduledExecutor.execute(executeAction);
+
+        return executorAction;
+    }
+
+    /**
+     * Executor that executes the task. If null, the task is executed on the Bukkit thread pool.
+     * @see BetterExecutors
+     */
+    public Executor getExecutor() {
+        return executor != null ? executor : BetterExecutors.getDefaultExecutor();
+    }
+
+    /**
+     * Sets executor that executes the task. Takes effect when the task is started or unpaused next time.
+     * @param executor executor or null to use the default executor.
+     * @see BetterExecutors#virtualThreads()
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 
     @Override
@@ -55,16 +123,16 @@ public class BetterAsyncDelayedRunnable extends BetterDelayedRunnable {
     @Override
     public boolean stop(boolean removeFromGroups) {
         if(removeFromGroups)
-            while(!groups.isEmpty())
-                groups.iterator().next().removeTask(this);
+            leaveGroups();
 
         isStopped = true;
+        unregister();
 
-        if(runnableID == null) return false;
+        boolean wasScheduled = cancelRunnable();
 
-        runnableID.cancel();
-        runnableID = null;
-        return true;
+        if(pool != null)
+            pool.release(this);
+        return wasScheduled;
     }
 
     @Override
@@ -77,12 +145,9 @@ public class BetterAsyncDelayedRunnable extends BetterDelayedRunnable {
 
         if(wasTaskPreviousPaused || !willTaskBePaused) return;
 
-        if(runnableID != null) {
-            runnableID.cancel();
-            runnableID = null;
-        }
+        cancelRunnable();
 
-        passedTime += (System.currentTimeMillis() - taskStartedTime);
+        passedTime += (scheduler.currentTimeMillis() - taskStartedTime) / MILLIS_PER_TICK;
     }
 
 }
\ No newline at end of file
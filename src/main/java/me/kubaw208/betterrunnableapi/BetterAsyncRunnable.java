@@ -1,21 +1,42 @@
 package me.kubaw208.betterrunnableapi;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import me.kubaw208.betterrunnableapi.structs.OverrunPolicy;
 import me.kubaw208.betterrunnableapi.structs.PauseType;
-import org.bukkit.Bukkit;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
  * Classic asynchronous task class that is repeating in given an interval with possible delay on start.
  * Can be paused and unpaused.
+ * <br><br>
+ * By default, a run that is due while the previous execution is still running is skipped.
+ * @see OverrunPolicy
  */
 @Getter
 public class BetterAsyncRunnable extends BetterRunnable {
 
-    private BukkitTask runnableID;
+    private Executor executor;
+    @Getter(AccessLevel.NONE) private Executor scheduledExecutor;
+    @Getter(AccessLevel.NONE) private Runnable executorAction;
+    @Getter(AccessLevel.NONE) private Runnable overrunAction;
+    // Fields below have no initializers, because the task is started by the super constructor before initializers run
+    @Getter(AccessLevel.NONE) private OverrunPolicy overrunPolicy;
+    @Getter(AccessLevel.NONE) private int maxConcurrentRuns;
+    @Getter(AccessLevel.NONE) private int runningExecutions;
+    @Getter(AccessLevel.NONE) private boolean queuedRun;
+    /**
+     * Number of runs skipped because previous executions were still running. Stopping the task will reset this value.
+     */
+    private volatile long skippedRuns;
+    /**
+     * Number of executions that started while another execution of the task was running. Stopping the task will reset this value.
+     */
+    private volatile long overlappingRuns;
 
     /**
      * Creates a new asynchronous task.
@@ -30,6 +51,21 @@ public class BetterAsyncRunnable extends BetterRunnable {
         super(plugin, pauseType, group, task, delay, interval);
     }
 
+    /**
+     * Creates a new asynchronous task with a priority. Priority of asynchronous tasks is informative only, because they are never dispatched.
+     * @see BetterRunnable#BetterRunnable(JavaPlugin, PauseType, TaskPriority, BetterRunnableGroup, Consumer, long, long)
+     */
+    public BetterAsyncRunnable(JavaPlugin plugin, PauseType pauseType, TaskPriority priority, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval) {
+        super(plugin, pauseType, priority, group, task, delay, interval);
+    }
+
+    /**
+     * Creates a new asynchronous task and starts it only if requested, so subclasses can initialize their fields before the first schedule.
+     */
+    protected BetterAsyncRunnable(JavaPlugin plugin, PauseType pauseType, Consumer<BetterTask> task, long delay, long interval, boolean start) {
+        super(plugin, pauseType, task, delay, interval, start);
+    }
+
     /** @see #BetterAsyncRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Consumer, long, long) */
     public BetterAsyncRunnable(JavaPlugin plugin, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval) {
         super(plugin, group, task, delay, interval);
@@ -66,25 +102,161 @@ public class BetterAsyncRunnable extends BetterRunnable {
     }
 
     @Override
-    public void start() {
-        if(isStopped) {
-            taskStartedTime = System.currentTimeMillis();
-            lastTaskExecutionTime = System.currentTimeMillis();
-        }
+    public boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    public synchronized void start() {
+        if(isStopped)
+            lastTaskExecutionTime = scheduler.currentTimeMillis();
+
+        cancelRunnable();
+
+        schedule(isStopped ? rampDelay(delay) : newDelayAfterPauseTask);
 
-        if(runnableID != null) {
-            runnableID.cancel();
-            runnableID = null;
+        isStopped = false;
+        register();
+    }
+
+    @Override
+    void schedule(long delay) {
+        var executor = getExecutor();
+
+        planExecution(delay);
+
+        if(overrunAction == null)
+            overrunAction = this::run;
+
+        if(executor == null) {
+            taskID = scheduler.runTaskTimerAsynchronously(
+                    getPlugin(),
+                    overrunAction,
+                    delay,
+                    getEffectiveInterval()
+            ).getTaskId();
+            return;
         }
 
-        runnableID = Bukkit.getScheduler().runTaskTimerAsynchronously(
+        taskID = scheduler.runTaskTimer(
                 getPlugin(),
-                this::execute,
-                (isStopped ? delay : newDelayAfterPauseTask),
-                getInterval()
-        );
+                executorAction(executor),
+                delay,
+                getEffectiveInterval()
+        ).getTaskId();
+    }
 
-        isStopped = false;
+    /**
+     * Returns action that hands execution over to given executor. Action is created once and reused by later schedules.
+     */
+    private Runnable executorAction(Executor executor) {
+        scheduledExecutor = executor;
+
+        if(executorAction == null)
+            executorAction = () -> scheduledExecutor.execute(overrunAction);
+
+        return executorAction;
+    }
+
+    /**
+     * Runs the task according to its overrun policy. Queued run is executed right after the running execution on the same thread.
+     */
+    private void run() {
+        synchronized(this) {
+            var policy = getOverrunPolicy();
+            int limit = policy == OverrunPolicy.CONCURRENT ? getMaxConcurrentRuns() : 1;
+
+            if(runningExecutions >= limit) {
+                if(policy == OverrunPolicy.QUEUE && !queuedRun)
+                    queuedRun = true;
+                else
+                    skippedRuns++;
+                return;
+            }
+
+            if(runningExecutions > 0)
+                overlappingRuns++;
+
+            runningExecutions++;
+        }
+
+        boolean runQueued = true;
+
+        while(runQueued) {
+            boolean executed = false;
+
+            try {
+                execute();
+                executed = true;
+            } finally {
+                synchronized(this) {
+                    // Exception leaves the loop, so a queued run can't be executed and is counted as skipped
+                    if(queuedRun && !executed)
+                        skippedRuns++;
+
+                    runQueued = executed && queuedRun && !isStopped;
+                    queuedRun = false;
+
+                    if(!runQueued)
+                        runningExecutions--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Policy applied when the task is due while its previous execution is still running.
+     */
+    public OverrunPolicy getOverrunPolicy() {
+        return overrunPolicy != null ? overrunPolicy : OverrunPolicy.SKIP;
+    }
+
+    /**
+     * Maximal number of concurrent executions of the task. Used only by CONCURRENT policy.
+     */
+    public int getMaxConcurrentRuns() {
+        return Math.max(1, maxConcurrentRuns);
+    }
+
+    /**
+     * Sets policy applied when the task is due while its previous execution is still running.
+     * @see OverrunPolicy
+     */
+    public synchronized void setOverrunPolicy(OverrunPolicy overrunPolicy) {
+        this.overrunPolicy = overrunPolicy;
+    }
+
+    /**
+     * Sets policy applied when the task is due while its previous execution is still running.
+     * @param maxConcurrentRuns maximal number of executions running at the same time with CONCURRENT policy.
+     */
+    public synchronized void setOverrunPolicy(OverrunPolicy overrunPolicy, int maxConcurrentRuns) {
+        this.overrunPolicy = overrunPolicy;
+        this.maxConcurrentRuns = maxConcurrentRuns;
+    }
+
+    /**
+     * Number of executions of the task running at the moment.
+     */
+    public synchronized int getRunningExecutions() {
+        return runningExecutions;
+    }
+
+    /**
+     * Executor that executes the task. If null, the task is executed on the Bukkit thread pool.
+     * @see BetterExecutors
+     */
+    public Executor getExecutor() {
+        return executor != null ? executor : BetterExecutors.getDefaultExecutor();
+    }
+
+    /**
+     * Sets executor that executes the task. Takes effect when the task is started or unpaused next time.
+     * @param executor executor or null to use the default executor.
+     * @see BetterExecutors#virtualThreads()
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 
     @Override
@@ -99,31 +271,34 @@ public class BetterAsyncRunnable extends BetterRunnable {
     @Override
     public boolean stop(boolean removeFromGroups) {
         if(removeFromGroups)
-            while(!groups.isEmpty())
-                groups.iterator().next().removeTask(this);
-
-        isStopped = true;
+            leaveGroups();
 
-        executions = 0;
-        pauseTime = 0;
-        pausedTime = 0;
+        synchronized(this) {
+            isStopped = true;
+            unregister();
 
-        if(runnableID == null) return false;
+            executions = 0;
+            pauseTime = 0;
+            pausedTime = 0;
+            skippedRuns = 0;
+            overlappingRuns = 0;
 
-        runnableID.cancel();
-        runnableID = null;
-        return true;
+            return cancelRunnable();
+        }
     }
 
+    /**
+     * Bookkeeping is synchronized, because concurrent executions can finish at the same time.
+     */
     @Override
-    public void execute() {
-        super.execute();
+    synchronized void finishExecution() {
+        super.finishExecution();
 
-        lastTaskExecutionTime = System.currentTimeMillis();
+        lastTaskExecutionTime = scheduler.currentTimeMillis();
     }
 
     @Override
-    void pauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+    synchronized void pauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
         boolean wasTaskPreviousPaused = wasHardPause || wasSoftPause;
         boolean willTaskBePaused = willHardPause || willSoftPause;
 
@@ -132,17 +307,19 @@ public class BetterAsyncRunnable extends BetterRunnable {
 
         if(wasTaskPreviousPaused || !willTaskBePaused) return;
 
-        newDelayAfterPauseTask = lastTaskExecutionTime - System.currentTimeMillis() + (isStopped ? delay : interval);
-        pauseTime = System.currentTimeMillis();
+        // Execution times of asynchronous tasks are measured in milliseconds, but the scheduler expects ticks.
+        // Time of earlier pauses since the last execution doesn't count as elapsed, like in synchronous tasks
+        long elapsedTicks = (scheduler.currentTimeMillis() - lastTaskExecutionTime - pausedTime) / MILLIS_PER_TICK;
 
-        if(pauseType == PauseType.AUTOMATIC && runnableID != null) {
-            runnableID.cancel();
-            runnableID = null;
-        }
+        newDelayAfterPauseTask = Math.max(0, (executions == 0 ? delay : effectiveInterval) - elapsedTicks);
+        pauseTime = scheduler.currentTimeMillis();
+
+        if(pauseType == PauseType.AUTOMATIC)
+            cancelRunnable();
     }
 
     @Override
-    void unpauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+    synchronized void unpauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
         boolean wasTaskPreviousPaused = wasHardPause || wasSoftPause;
         boolean willTaskBePaused = willHardPause || willSoftPause;
 
@@ -151,7 +328,7 @@ public class BetterAsyncRunnable extends BetterRunnable {
 
         if(!wasTaskPreviousPaused || willTaskBePaused) return;
 
-        pausedTime += System.currentTimeMillis() - pauseTime;
+        pausedTime += scheduler.currentTimeMillis() - pauseTime;
 
         if(pauseType == PauseType.AUTOMATIC)
             start();
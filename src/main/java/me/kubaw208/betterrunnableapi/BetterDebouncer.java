@@ -0,0 +1,119 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keyed debounce. Action for a key is executed once after the key was not triggered for given delay,
+ * so a burst of triggers (for example inventory changes of a player) results in a single execution.
+ * Triggering a key that is already waiting restarts its existing timer instead of scheduling a new task.
+ * Timers are taken from a {@link BetterDelayedTaskPool}, so steady usage doesn't create new task objects.
+ * <br><br>
+ * Debouncer must be used from the main thread. Actions are executed on the main thread.
+ *
+ * @param <K> type of keys, for example player UUID.
+ */
+@Getter
+public final class BetterDebouncer<K> {
+
+    private final JavaPlugin plugin;
+    private final long delay;
+    @Getter(AccessLevel.NONE) private final Consumer<K> action;
+    @Getter(AccessLevel.NONE) private final BetterDelayedTaskPool timers;
+    @Getter(AccessLevel.NONE) private final Map<K, BetterDelayedTaskPool.Lease> pending = new HashMap<>();
+    private long triggers = 0;
+    private long executions = 0;
+
+    /**
+     * Creates a new debouncer.
+     * @param plugin plugin main class that runs timers.
+     * @param delay time in ticks without triggers after which the action is executed.
+     * @param action action executed for a key.
+     */
+    public BetterDebouncer(JavaPlugin plugin, long delay, Consumer<K> action) {
+        this.plugin = plugin;
+        this.delay = Math.max(1, delay);
+        this.action = action;
+        this.timers = new BetterDelayedTaskPool(plugin, 256);
+    }
+
+    /**
+     * Triggers the key. Action for the key is executed after the delay, unless the key is triggered again in the meantime.
+     */
+    public void trigger(K key) {
+        triggers++;
+
+        var timer = pending.get(key);
+
+        // Timer stopped from outside is dropped, because it can already serve another key
+        if(timer != null && timer.isOwned()) {
+            timer.task.restart(delay);
+            return;
+        }
+
+        pending.put(key, new BetterDelayedTaskPool.Lease(timers.schedule(task -> fire(key), delay)));
+    }
+
+    /**
+     * Returns true if action for the key is waiting for execution. Else returns false.
+     */
+    public boolean isPending(K key) {
+        var timer = pending.get(key);
+
+        return timer != null && timer.isOwned();
+    }
+
+    /**
+     * Number of keys waiting for execution.
+     */
+    public int getPendingKeys() {
+        pending.values().removeIf(timer -> !timer.isOwned());
+        return pending.size();
+    }
+
+    /**
+     * Cancels waiting action for the key without executing it.
+     * @return true if action for the key was waiting. Else returns false.
+     */
+    public boolean cancel(K key) {
+        var timer = pending.remove(key);
+
+        if(timer == null || !timer.isOwned()) return false;
+
+        timer.task.stop();
+        return true;
+    }
+
+    /**
+     * Executes waiting action for the key immediately.
+     * @return true if action for the key was waiting. Else returns false.
+     */
+    public boolean flush(K key) {
+        if(!cancel(key)) return false;
+
+        executions++;
+        action.accept(key);
+        return true;
+    }
+
+    /**
+     * Executes all waiting actions immediately, for example when the plugin is disabled.
+     */
+    public void flushAll() {
+        for(K key : new ArrayList<>(pending.keySet()))
+            flush(key);
+    }
+
+    private void fire(K key) {
+        pending.remove(key);
+        executions++;
+        action.accept(key);
+    }
+
+}
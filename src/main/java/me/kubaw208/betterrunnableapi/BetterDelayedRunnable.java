@@ -3,12 +3,11 @@ package me.kubaw208.betterrunnableapi;
 import lombok.AccessLevel;
 import lombok.Getter;
 import me.kubaw208.betterrunnableapi.structs.PauseType;
-import org.bukkit.Bukkit;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -19,16 +18,26 @@ import java.util.function.Consumer;
 public class BetterDelayedRunnable extends BetterTask {
 
     protected final JavaPlugin plugin;
-    protected final Set<BetterRunnableGroup> groups = Collections.newSetFromMap(new WeakHashMap<>());
+    protected final TaskScheduler scheduler;
     protected final PauseType pauseType;
-    protected final Consumer<BetterTask> task;
-    protected Object runnableID = null;
+    protected Consumer<BetterTask> task;
+    /**
+     * Scheduler ID of the task, {@link #DISPATCHED} for tasks driven by the dispatcher or {@link #NOT_SCHEDULED}.
+     */
+    @Getter(AccessLevel.NONE) protected int taskID = NOT_SCHEDULED;
     protected long delay;
     private final long interval = -1;
     private final long executions = -1;
     @Getter(AccessLevel.PRIVATE) protected long taskStartedTime;
     protected boolean isStopped = false;
     protected long passedTime;
+    @Getter(AccessLevel.NONE) protected boolean consumed = false;
+    @Getter(AccessLevel.NONE) final BetterDelayedTaskPool pool;
+    @Getter(AccessLevel.NONE) boolean inPool = false;
+    /**
+     * Number of times the task was returned to its pool.
+     */
+    @Getter(AccessLevel.NONE) int poolGeneration = 0;
 
     /**
      * Creates a new synchronous delayed task executed only once after given delay.
@@ -38,15 +47,43 @@ public class BetterDelayedRunnable extends BetterTask {
      * @param delay time in ticks to wait before the first run (default: 0).
      */
     public BetterDelayedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Consumer<BetterTask> task, long delay) {
+        this(plugin, task, delay, true);
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Creates a new synchronous delayed task with a priority.
+     * @param priority priority of the task or null to inherit priority of its groups.
+     * @see #BetterDelayedRunnable(JavaPlugin, BetterRunnableGroup, Consumer, long)
+     * @see TaskPriority
+     */
+    public BetterDelayedRunnable(JavaPlugin plugin, TaskPriority priority, BetterRunnableGroup group, Consumer<BetterTask> task, long delay) {
+        this(plugin, task, delay, true);
+        this.priority = priority;
+
+        if(priority == TaskPriority.CRITICAL)
+            exemptFromRamp();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Creates a new synchronous delayed task and starts it only if requested, so subclasses can initialize their fields before the first schedule.
+     */
+    protected BetterDelayedRunnable(JavaPlugin plugin, Consumer<BetterTask> task, long delay, boolean start) {
         this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
         this.pauseType = PauseType.AUTOMATIC;
         this.task = task;
         this.delay = delay;
+        this.pool = null;
+        this.isStopped = true;
 
-        start();
-
-        if(group != null)
-            group.addTask(this);
+        if(start)
+            start();
     }
 
     /** @see BetterDelayedRunnable#BetterDelayedRunnable(JavaPlugin, BetterRunnableGroup, Consumer, long) */
@@ -54,11 +91,27 @@ public class BetterDelayedRunnable extends BetterTask {
         this(plugin, null, task, delay);
     }
 
+    /**
+     * Creates a stopped task owned by a pool.
+     */
+    BetterDelayedRunnable(JavaPlugin plugin, BetterDelayedTaskPool pool) {
+        this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
+        this.pauseType = PauseType.AUTOMATIC;
+        this.isStopped = true;
+        this.pool = pool;
+    }
+
     @Override
     public boolean isAsync() {
         return false;
     }
 
+    @Override
+    public Object getRunnableID() {
+        return runnableID(taskID);
+    }
+
     @Override
     public boolean isDelayed() {
         return true;
@@ -66,9 +119,45 @@ public class BetterDelayedRunnable extends BetterTask {
 
     @Override
     public void start() {
-        runnableID = Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, this::execute, delay - passedTime);
-        taskStartedTime = Bukkit.getCurrentTick();
+        schedule(isStopped ? rampDelay(delay - passedTime) : delay - passedTime);
+        taskStartedTime = scheduler.getCurrentTick();
         isStopped = false;
+        register();
+    }
+
+    /**
+     * Cancels the planned run of the task if there is one and plans it again after given delay.
+     * Works also after the task was executed or stopped and from inside the task, so one task object can be reused for many runs.
+     * Groups of the task are kept only if the task is still planned. If the task is paused, it runs after given delay counted from unpausing.
+     * @param delay time in ticks to wait before the run.
+     */
+    public void restart(long delay) {
+        cancelRunnable();
+        this.delay = delay;
+        passedTime = 0;
+        consumed = false;
+
+        if(isAnyPaused()) {
+            isStopped = false;
+            register();
+            return;
+        }
+
+        start();
+    }
+
+    @Override
+    void schedule(long delay) {
+        planExecution(delay);
+
+        var dispatcher = BetterTaskDispatcher.get(plugin);
+
+        if(dispatcher != null) {
+            dispatcher.schedule(this, delay, 0);
+            taskID = DISPATCHED;
+        } else {
+            taskID = scheduler.scheduleSyncDelayedTask(plugin, executeAction, delay);
+        }
     }
 
     @Override
@@ -79,21 +168,47 @@ public class BetterDelayedRunnable extends BetterTask {
     @Override
     public boolean stop(boolean removeFromGroups) {
         if(removeFromGroups)
-            while(!groups.isEmpty())
-                groups.iterator().next().removeTask(this);
+            leaveGroups();
 
         isStopped = true;
+        unregister();
+
+        boolean wasScheduled = cancelRunnable();
 
-        if(runnableID == null) return false;
+        if(pool != null)
+            pool.release(this);
+        return wasScheduled;
+    }
 
-        Bukkit.getScheduler().cancelTask((int) runnableID);
-        runnableID = null;
+    /**
+     * Cancels scheduled run of the task, either in the scheduler or in the dispatcher.
+     * @return true if the task was scheduled. Else returns false.
+     */
+    @Override
+    boolean cancelRunnable() {
+        if(taskID == NOT_SCHEDULED) return false;
+
+        cancelScheduled(taskID);
+        taskID = NOT_SCHEDULED;
         return true;
     }
 
     @Override
     public void execute() {
-        task.accept(this);
+        long measuringStart = startMeasuring();
+
+        consumed = true;
+
+        try {
+            task.accept(this);
+        } finally {
+            finishMeasuring(measuringStart);
+        }
+
+        // Task was restarted during its execution
+        if(!consumed) return;
+
+        consumed = false;
         passedTime = 0;
         taskStartedTime = 0;
         stop(true);
@@ -109,12 +224,9 @@ public class BetterDelayedRunnable extends BetterTask {
 
         if(wasTaskPreviousPaused || !willTaskBePaused) return;
 
-        if(runnableID != null) {
-            Bukkit.getScheduler().cancelTask((int) runnableID);
-            runnableID = null;
-        }
+        cancelRunnable();
 
-        passedTime += (Bukkit.getCurrentTick() - taskStartedTime);
+        passedTime += (scheduler.getCurrentTick() - taskStartedTime);
     }
 
     @Override
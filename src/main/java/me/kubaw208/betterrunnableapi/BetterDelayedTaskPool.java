@@ -0,0 +1,143 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Pool of delayed tasks for short-lived one-shot timers like cooldowns or despawn timers.
+ * A task taken from the pool goes back to the pool once it is executed or stopped, so steady usage of timers doesn't create new task objects.
+ * <br><br>
+ * Task returned by {@link #schedule(Consumer, long)} must not be used after it was executed or stopped, because it can already serve another timer.
+ * Task can be kept alive by calling {@link BetterDelayedRunnable#restart(long)} from inside the task.
+ */
+@Getter
+public final class BetterDelayedTaskPool {
+
+    private final JavaPlugin plugin;
+    private final boolean async;
+    private final int maxSize;
+    @Getter(AccessLevel.NONE) private final ArrayDeque<BetterDelayedRunnable> idleTasks;
+    private long createdTasks = 0;
+    private long reusedTasks = 0;
+
+    /**
+     * Creates a new pool of delayed tasks.
+     * @param plugin plugin main class that runs tasks.
+     * @param async if true, the pool creates asynchronous tasks.
+     * @param maxSize maximal number of idle tasks kept in the pool.
+     */
+    public BetterDelayedTaskPool(JavaPlugin plugin, boolean async, int maxSize) {
+        this.plugin = plugin;
+        this.async = async;
+        this.maxSize = Math.max(0, maxSize);
+        this.idleTasks = new ArrayDeque<>(Math.min(this.maxSize, 1024));
+    }
+
+    /** @see #BetterDelayedTaskPool(JavaPlugin, boolean, int) */
+    public BetterDelayedTaskPool(JavaPlugin plugin, int maxSize) {
+        this(plugin, false, maxSize);
+    }
+
+    /**
+     * Takes a task from the pool (or creates a new one if the pool is empty) and starts it.
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param task code in task to execute.
+     * @param delay time in ticks to wait before the run.
+     */
+    public BetterDelayedRunnable schedule(BetterRunnableGroup group, Consumer<BetterTask> task, long delay) {
+        BetterDelayedRunnable runnable;
+
+        synchronized(idleTasks) {
+            runnable = idleTasks.poll();
+
+            if(runnable != null)
+                reusedTasks++;
+            else
+                createdTasks++;
+        }
+
+        if(runnable == null)
+            runnable = async ? new BetterAsyncDelayedRunnable(plugin, this) : new BetterDelayedRunnable(plugin, this);
+
+        runnable.inPool = false;
+        runnable.task = task;
+        runnable.restart(delay);
+
+        if(group != null)
+            group.addTask(runnable);
+
+        return runnable;
+    }
+
+    /** @see #schedule(BetterRunnableGroup, Consumer, long) */
+    public BetterDelayedRunnable schedule(Consumer<BetterTask> task, long delay) {
+        return schedule(null, task, delay);
+    }
+
+    /**
+     * Number of idle tasks in the pool.
+     */
+    public int getSize() {
+        synchronized(idleTasks) {
+            return idleTasks.size();
+        }
+    }
+
+    /**
+     * Removes all idle tasks from the pool.
+     */
+    public void clear() {
+        synchronized(idleTasks) {
+            idleTasks.clear();
+        }
+    }
+
+    /**
+     * Returns a stopped task to the pool. Tasks that are still in a group are not reused.
+     */
+    void release(BetterDelayedRunnable runnable) {
+        if(runnable.inPool || runnable.groupArray().length > 0) return;
+
+        runnable.inPool = true;
+        runnable.poolGeneration++;
+        runnable.task = null;
+        runnable.isHardPause = false;
+        runnable.isSoftPause = false;
+        runnable.pausedGroups = 0;
+        runnable.passedTime = 0;
+
+        synchronized(idleTasks) {
+            if(idleTasks.size() < maxSize)
+                idleTasks.push(runnable);
+        }
+    }
+
+    /**
+     * Task taken from a pool by an owner that keeps it for longer, like a timer of a key.
+     * The task can be stopped from outside (for example by {@link BetterTaskRegistry#stopAll(JavaPlugin)}) and then serve another owner,
+     * so the owner must check {@link #isOwned()} before it uses the task.
+     */
+    static final class Lease {
+
+        final BetterDelayedRunnable task;
+        private final int generation;
+
+        Lease(BetterDelayedRunnable task) {
+            this.task = task;
+            this.generation = task.poolGeneration;
+        }
+
+        /**
+         * Returns true if the task still runs for the owner. Else returns false.
+         */
+        boolean isOwned() {
+            return !task.isStopped() && task.poolGeneration == generation;
+        }
+
+    }
+
+}
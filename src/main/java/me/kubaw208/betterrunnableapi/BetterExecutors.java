@@ -0,0 +1,180 @@
+package me.kubaw208.betterrunnableapi;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for asynchronous tasks.
+ * By default, asynchronous tasks are executed on the shared Bukkit thread pool.
+ * Tasks with an executor are timed by the main thread and executed on the executor instead.
+ * <br><br>
+ * Executors created by the library keep their threads until {@link #shutdown()} is called, so it should be called in {@code onDisable}.
+ *
+ * @see BetterAsyncRunnable#setExecutor(Executor)
+ * @see BetterAsyncDelayedRunnable#setExecutor(Executor)
+ * @see BetterPreciseAsyncRunnable
+ */
+public final class BetterExecutors {
+
+    private static volatile Executor defaultExecutor = null;
+    private static volatile Executor virtualThreads = null;
+    private static volatile boolean virtualThreadsChecked = false;
+    private static volatile ScheduledExecutorService timer = null;
+    private static volatile ScheduledExecutorService sharedTimer = null;
+    private static volatile ExecutorService sharedPool = null;
+
+    private BetterExecutors() {}
+
+    /**
+     * Returns true if the running Java version supports virtual threads (Java 21+). Else returns false.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreads() != null;
+    }
+
+    /**
+     * Returns a shared executor that starts a new virtual thread for every execution.
+     * Blocking tasks executed on virtual threads don't occupy platform threads while they wait.
+     * @return virtual thread executor or null if virtual threads are not supported, which makes tasks use the Bukkit thread pool.
+     */
+    public static Executor virtualThreads() {
+        if(virtualThreadsChecked) return virtualThreads;
+
+        synchronized(BetterExecutors.class) {
+            if(!virtualThreadsChecked) {
+                try {
+                    virtualThreads = (ExecutorService) MethodHandles.publicLookup()
+                            .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                            .invoke();
+                } catch(Throwable ignored) {
+                    // Java older than 21 (or 19-20 without preview features)
+                    virtualThreads = null;
+                }
+
+                virtualThreadsChecked = true;
+            }
+        }
+
+        return virtualThreads;
+    }
+
+    /**
+     * Executor used by asynchronous tasks without their own executor. Null means the Bukkit thread pool.
+     */
+    public static Executor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets executor used by asynchronous tasks without their own executor.
+     * Only tasks started (or unpaused) after this call are affected.
+     * @param executor executor or null to use the Bukkit thread pool.
+     */
+    public static void setDefaultExecutor(Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Returns shared pool of daemon threads used by {@link BetterPipeline} runs without an executor.
+     * Threads are created when needed and reused, idle threads are released after a minute.
+     * Unlike the Bukkit thread pool, hops to this pool don't register a task in the scheduler.
+     * @see #shutdown()
+     */
+    public static ExecutorService getSharedPool() {
+        var sharedPool = BetterExecutors.sharedPool;
+
+        if(sharedPool != null) return sharedPool;
+
+        synchronized(BetterExecutors.class) {
+            if(BetterExecutors.sharedPool == null) {
+                var counter = new AtomicInteger();
+
+                BetterExecutors.sharedPool = Executors.newCachedThreadPool(runnable -> {
+                    var thread = new Thread(runnable, "BetterRunnableAPI Worker #" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+
+            return BetterExecutors.sharedPool;
+        }
+    }
+
+    /**
+     * Returns timer that times {@link BetterPreciseAsyncRunnable} tasks independently of the server ticks.
+     * Creates a shared timer with a single daemon thread if no timer was set.
+     */
+    public static ScheduledExecutorService getTimer() {
+        var timer = BetterExecutors.timer;
+
+        if(timer != null) return timer;
+
+        synchronized(BetterExecutors.class) {
+            if(BetterExecutors.timer == null) {
+                var executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                    var thread = new Thread(runnable, "BetterRunnableAPI Timer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+                // Cancelled runs are removed at once, so pausing and restarting tasks doesn't fill the queue
+                executor.setRemoveOnCancelPolicy(true);
+                // Waiting runs are dropped on shutdown, so runs that plan the next run don't keep the timer alive
+                executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                BetterExecutors.timer = executor;
+                BetterExecutors.sharedTimer = executor;
+            }
+
+            return BetterExecutors.timer;
+        }
+    }
+
+    /**
+     * Sets timer that times {@link BetterPreciseAsyncRunnable} tasks. The previous timer is not shut down.
+     * Only tasks scheduled after this call are affected.
+     * @param timer timer or null to use the shared timer.
+     */
+    public static void setTimer(ScheduledExecutorService timer) {
+        BetterExecutors.timer = timer;
+    }
+
+    /**
+     * Shuts down executors created by the library: the shared timer, the shared pool and the virtual thread executor.
+     * Should be called in {@code onDisable} after tasks of the plugin were stopped, so their threads don't outlive the plugin.
+     * Running executions are finished, waiting runs of the timer are dropped.
+     * Timer and executors set with {@link #setTimer(ScheduledExecutorService)} or {@link #setDefaultExecutor(Executor)} are not shut down,
+     * unless the default executor is {@link #virtualThreads()}. Executors are created again if they are needed after this call.
+     */
+    public static synchronized void shutdown() {
+        if(sharedTimer != null) {
+            sharedTimer.shutdown();
+
+            if(timer == sharedTimer)
+                timer = null;
+
+            sharedTimer = null;
+        }
+
+        if(sharedPool != null) {
+            sharedPool.shutdown();
+            sharedPool = null;
+        }
+
+        if(virtualThreads instanceof ExecutorService executor) {
+            executor.shutdown();
+
+            if(defaultExecutor == executor)
+                defaultExecutor = null;
+        }
+
+        virtualThreads = null;
+        virtualThreadsChecked = false;
+    }
+
+}
@@ -0,0 +1,181 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Queue of actions handed over from other threads to the main thread.
+ * Actions of a plugin are collected in one lock-free queue and executed in a batch once per tick by a single repeating task,
+ * so submitting an action never touches the Bukkit scheduler.
+ * <br><br>
+ * Actions can be submitted from any thread. Counters are updated on the main thread.
+ * Bukkit cancels the driver task when the plugin gets disabled, so from that moment actions are rejected instead of being queued forever.
+ *
+ * @see BetterTask#runOnMainThread(Runnable)
+ */
+@Getter
+public final class BetterMainThreadQueue {
+
+    private static final Map<JavaPlugin, BetterMainThreadQueue> queues = new ConcurrentHashMap<>();
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    @Getter(AccessLevel.NONE) private final Queue<Runnable> actions = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE) private final AtomicInteger backlog = new AtomicInteger();
+    private final int driverTaskID;
+    @Getter(AccessLevel.NONE) private volatile long drainBudgetNanos = 0;
+    private long executedActions = 0;
+    private long deferredTicks = 0;
+    private int maxBacklog = 0;
+    private long lastDrainTime = 0;
+
+    private BetterMainThreadQueue(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
+        this.driverTaskID = scheduler.scheduleSyncRepeatingTask(plugin, this::drain, 1, 1);
+    }
+
+    /**
+     * Returns queue of the plugin. Creates it if it doesn't exist yet. Can be called from any thread.
+     * @throws IllegalPluginAccessException if the plugin is disabled.
+     */
+    public static BetterMainThreadQueue of(JavaPlugin plugin) {
+        var queue = get(plugin);
+
+        if(queue != null) return queue;
+
+        checkEnabled(plugin);
+        return queues.computeIfAbsent(plugin, BetterMainThreadQueue::new);
+    }
+
+    /**
+     * Returns queue of the plugin or null if the plugin does not use the queue or is disabled.
+     */
+    public static BetterMainThreadQueue get(JavaPlugin plugin) {
+        if(queues.isEmpty()) return null;
+
+        var queue = queues.get(plugin);
+
+        if(queue == null) return null;
+
+        // Bukkit cancels the driver when plugin gets disabled, so the queue would never be drained again
+        if(!plugin.isEnabled()) {
+            queues.remove(plugin, queue);
+            return null;
+        }
+
+        return queue;
+    }
+
+    /**
+     * Stops the queue of the plugin. Actions that are still waiting are executed immediately, so this should be called from the main thread.
+     * @return true if the plugin used the queue. Else returns false.
+     */
+    public static boolean disable(JavaPlugin plugin) {
+        var queue = queues.remove(plugin);
+
+        if(queue == null) return false;
+
+        queue.scheduler.cancelTask(queue.driverTaskID);
+
+        Runnable action;
+
+        while((action = queue.actions.poll()) != null)
+            queue.run(action);
+        return true;
+    }
+
+    /**
+     * Adds action to the queue. Action is executed on the main thread in one of the next ticks,
+     * in the order in which actions were submitted.
+     * @throws IllegalPluginAccessException if the plugin is disabled.
+     */
+    public void submit(Runnable action) {
+        if(!plugin.isEnabled()) {
+            queues.remove(plugin, this);
+            checkEnabled(plugin);
+        }
+
+        actions.add(action);
+        backlog.incrementAndGet();
+    }
+
+    /**
+     * Number of actions waiting for execution.
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * Time budget for executing queued actions in one tick in milliseconds. 0 means no budget.
+     */
+    public double getDrainBudget() {
+        return drainBudgetNanos / 1_000_000D;
+    }
+
+    /**
+     * Sets time budget for executing queued actions in one tick.
+     * Once the budget is exceeded, remaining actions wait for the next tick. At least one action is executed in every tick.
+     * @param millis budget in milliseconds. 0 or less disables the budget.
+     */
+    public BetterMainThreadQueue setDrainBudget(double millis) {
+        drainBudgetNanos = millis > 0 ? (long) (millis * 1_000_000D) : 0;
+        return this;
+    }
+
+    private static void checkEnabled(JavaPlugin plugin) {
+        if(!plugin.isEnabled())
+            throw new IllegalPluginAccessException("Plugin attempted to hand an action over to the main thread while disabled");
+    }
+
+    private void drain() {
+        int pending = backlog.get();
+
+        if(pending == 0) {
+            lastDrainTime = 0;
+            return;
+        }
+
+        maxBacklog = Math.max(maxBacklog, pending);
+
+        long budget = drainBudgetNanos;
+        long start = scheduler.nanoTime();
+        Runnable action;
+
+        // Only actions submitted before this tick are executed, so actions that submit other actions can't keep the tick busy
+        while(pending-- > 0 && (action = actions.poll()) != null) {
+            run(action);
+
+            if(budget > 0 && pending > 0 && scheduler.nanoTime() - start >= budget) {
+                deferredTicks++;
+                break;
+            }
+        }
+
+        lastDrainTime = scheduler.nanoTime() - start;
+    }
+
+    private void run(Runnable action) {
+        backlog.decrementAndGet();
+        executedActions++;
+
+        try {
+            action.run();
+        } catch(Throwable throwable) {
+            plugin.getLogger().log(Level.WARNING, "Action handed over to the main thread generated an exception", throwable);
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.structs.PauseType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous task class that processes a collection in parallel in given an interval with possible delay on start.
+ * In every run, the collection returned by the source is split into chunks that are processed on a work-stealing pool.
+ * Results of items are merged and handed over to the main thread.
+ * <br><br>
+ * Pausing or stopping the task aborts the current run. Results of an aborted run are not handed over and the next run starts from the beginning.
+ * The source is called in every run on an asynchronous thread, so it should return a snapshot that is safe to read from other threads.
+ *
+ * @param <T> type of items.
+ * @param <R> type of results. Null results are ignored by merging.
+ */
+@Getter
+public class BetterParallelRunnable<T, R> extends BetterAsyncRunnable {
+
+    @Getter(AccessLevel.NONE) private final Supplier<? extends Collection<? extends T>> source;
+    @Getter(AccessLevel.NONE) private final Function<? super T, ? extends R> mapper;
+    @Getter(AccessLevel.NONE) private final BinaryOperator<R> merger;
+    @Getter(AccessLevel.NONE) private final Consumer<? super R> resultAction;
+    @Getter(AccessLevel.NONE) private volatile boolean aborted = false;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int chunkSize = 0;
+    /**
+     * Number of items processed in the last finished run.
+     */
+    private volatile int lastRunSize = 0;
+    /**
+     * Duration of the last finished run in nanoseconds.
+     */
+    private volatile long lastRunTime = 0;
+
+    /**
+     * Creates a new parallel task.
+     * @param plugin plugin main class that runs task.
+     * @param pauseType pause type (default: AUTOMATIC).
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param source supplier of items processed in a run.
+     * @param mapper function that processes an item and returns its result.
+     * @param merger function that merges two results or null if results are not needed.
+     * @param resultAction action that receives merged result of a run on the main thread or null.
+     * @param delay time in ticks to wait before the first run (default: 0).
+     * @param interval time in ticks between runs.
+     */
+    public BetterParallelRunnable(JavaPlugin plugin, PauseType pauseType, BetterRunnableGroup group, Supplier<? extends Collection<? extends T>> source,
+                                  Function<? super T, ? extends R> mapper, BinaryOperator<R> merger, Consumer<? super R> resultAction, long delay, long interval) {
+        super(plugin, pauseType, BetterParallelRunnable::process, delay, interval, false);
+        this.source = source;
+        this.mapper = mapper;
+        this.merger = merger;
+        this.resultAction = resultAction;
+
+        start();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /** @see #BetterParallelRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Supplier, Function, BinaryOperator, Consumer, long, long) */
+    public BetterParallelRunnable(JavaPlugin plugin, BetterRunnableGroup group, Supplier<? extends Collection<? extends T>> source,
+                                  Function<? super T, ? extends R> mapper, BinaryOperator<R> merger, Consumer<? super R> resultAction, long delay, long interval) {
+        this(plugin, PauseType.AUTOMATIC, group, source, mapper, merger, resultAction, delay, interval);
+    }
+
+    /**
+     * Creates a new parallel task that only executes an action for every item.
+     * @see #BetterParallelRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Supplier, Function, BinaryOperator, Consumer, long, long)
+     */
+    public BetterParallelRunnable(JavaPlugin plugin, BetterRunnableGroup group, Supplier<? extends Collection<? extends T>> source, Consumer<? super T> action, long delay, long interval) {
+        this(plugin, PauseType.AUTOMATIC, group, source, item -> {
+            action.accept(item);
+            return null;
+        }, null, null, delay, interval);
+    }
+
+    /** @see #BetterParallelRunnable(JavaPlugin, BetterRunnableGroup, Supplier, Consumer, long, long) */
+    public BetterParallelRunnable(JavaPlugin plugin, Supplier<? extends Collection<? extends T>> source, Consumer<? super T> action, long interval) {
+        this(plugin, null, source, action, 0, interval);
+    }
+
+    /**
+     * Sets pool on which items are processed. Takes effect from the next run.
+     * @param pool pool or null to use the common pool.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Sets number of items processed by one chunk. Takes effect from the next run.
+     * @param chunkSize number of items or 0 to split the collection into 4 chunks per thread of the pool.
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(0, chunkSize);
+    }
+
+    @Override
+    public void start() {
+        aborted = false;
+        super.start();
+    }
+
+    @Override
+    public boolean stop(boolean removeFromGroups) {
+        aborted = true;
+        return super.stop(removeFromGroups);
+    }
+
+    @Override
+    void pauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+        super.pauseInternal(wasHardPause, wasSoftPause, willHardPause, willSoftPause);
+
+        if(pauseType == PauseType.AUTOMATIC && isAnyPaused())
+            aborted = true;
+    }
+
+    private static void process(BetterTask task) {
+        ((BetterParallelRunnable<?, ?>) task).processRun();
+    }
+
+    /**
+     * Processes all items of the source and hands the merged result over to the main thread.
+     */
+    private void processRun() {
+        var items = source.get();
+
+        if(items == null || items.isEmpty()) return;
+
+        @SuppressWarnings("unchecked")
+        List<? extends T> list = items instanceof List<?> && items instanceof RandomAccess ? (List<? extends T>) items : new ArrayList<>(items);
+        var pool = this.pool;
+        int threshold = chunkSize > 0 ? chunkSize : Math.max(1, list.size() / (pool.getParallelism() * 4));
+        long start = scheduler.nanoTime();
+
+        R result = pool.invoke(new Chunk(list, 0, list.size(), threshold));
+
+        if(aborted) return;
+
+        lastRunSize = list.size();
+        lastRunTime = scheduler.nanoTime() - start;
+
+        if(resultAction != null)
+            runOnMainThread(() -> {
+                if(!isStopped)
+                    resultAction.accept(result);
+            });
+    }
+
+    private R merge(R first, R second) {
+        if(merger == null || first == null) return second;
+        if(second == null) return first;
+
+        return merger.apply(first, second);
+    }
+
+    /**
+     * Range of items processed by one thread. Ranges longer than the threshold are split in half.
+     */
+    private final class Chunk extends RecursiveTask<R> {
+
+        private final List<? extends T> items;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private Chunk(List<? extends T> items, int from, int to, int threshold) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute() {
+            if(to - from <= threshold) {
+                R result = null;
+
+                for(int i = from; i < to && !aborted; i++)
+                    result = merge(result, mapper.apply(items.get(i)));
+
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            var left = new Chunk(items, from, middle, threshold);
+
+            left.fork();
+
+            R right = new Chunk(items, middle, to, threshold).compute();
+
+            return merge(left.join(), right);
+        }
+
+    }
+
+}
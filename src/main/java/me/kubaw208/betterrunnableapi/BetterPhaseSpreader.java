@@ -0,0 +1,185 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of phases of synchronous repeating tasks of a plugin and spreads tasks with the same interval evenly across the interval's ticks.
+ * Phase of a task is the tick (modulo interval) on which the task is executed.
+ * Tasks with intervals longer than {@link #MAX_PHASES} ticks are neither tracked nor spread, so histograms stay small.
+ * Phases of such intervals can't be folded into {@link #MAX_PHASES} slots, because tasks that share a slot wouldn't run in the same ticks.
+ * <br><br>
+ * Once created for a plugin, every synchronous {@link BetterRunnable} of the plugin scheduled afterwards is counted in the load histogram,
+ * so spreading also avoids phases already occupied by tasks that are not spread.
+ * Spreader must be used from the main thread. Histograms are released when the spreader is disabled or the plugin gets disabled.
+ */
+@Getter
+public final class BetterPhaseSpreader {
+
+    /**
+     * Maximal number of phases tracked for one interval (one minute at 20 TPS). Longer intervals are not spread.
+     */
+    public static final int MAX_PHASES = 1200;
+    private static final Map<JavaPlugin, BetterPhaseSpreader> spreaders = new HashMap<>();
+
+    private final JavaPlugin plugin;
+    @Getter(AccessLevel.NONE) private final Map<Long, int[]> phases = new HashMap<>();
+    @Setter private boolean automatic = false;
+
+    private BetterPhaseSpreader(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Returns spreader of the plugin. Creates it if it doesn't exist yet.
+     */
+    public static BetterPhaseSpreader of(JavaPlugin plugin) {
+        return spreaders.computeIfAbsent(plugin, BetterPhaseSpreader::new);
+    }
+
+    /**
+     * Returns spreader of the plugin or null if the plugin does not use phase spreading.
+     */
+    public static BetterPhaseSpreader get(JavaPlugin plugin) {
+        if(spreaders.isEmpty()) return null;
+
+        var spreader = spreaders.get(plugin);
+
+        if(spreader == null) return null;
+
+        // Tasks of a disabled plugin are cancelled by Bukkit, so their phases are no longer planned
+        if(!plugin.isEnabled()) {
+            spreader.release();
+            return null;
+        }
+
+        return spreader;
+    }
+
+    /**
+     * Disables phase spreading of the plugin and releases its histograms. Tasks that were already spread keep their phase.
+     * @return true if the plugin had a spreader. Else returns false.
+     */
+    public static boolean disable(JavaPlugin plugin) {
+        var spreader = spreaders.get(plugin);
+
+        if(spreader == null) return false;
+
+        spreader.release();
+        return true;
+    }
+
+    /**
+     * Returns number of scheduled tasks with given interval on each phase of that interval.
+     * Intervals longer than {@link #MAX_PHASES} ticks are not tracked and have no phases.
+     */
+    public int[] getPhaseLoad(long interval) {
+        if(!isTracked(interval)) return new int[0];
+
+        int[] load = phases.get(interval);
+
+        return load == null ? new int[phaseCount(interval)] : load.clone();
+    }
+
+    /**
+     * Returns number of tracked task executions planned on each of the next ticks.
+     * Index 0 is the next tick.
+     * @param ticks number of ticks to include in the histogram.
+     */
+    public int[] getLoadHistogram(int ticks) {
+        int[] histogram = new int[ticks];
+        long nextTick = currentTick() + 1;
+
+        for(int[] load : phases.values()) {
+            for(int tick = 0; tick < ticks; tick++)
+                histogram[tick] += load[(int) ((nextTick + tick) % load.length)];
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Finds the least loaded phase for a task and returns delay that moves the first run of the task to that phase.
+     * From phases with the same load, the one closest to the requested delay is picked.
+     * Delay of tasks with intervals longer than {@link #MAX_PHASES} ticks is returned unchanged.
+     */
+    long spread(long interval, long delay) {
+        if(!isTracked(interval)) return delay;
+
+        int[] load = phases.get(interval);
+        long firstRun = currentTick() + Math.max(1, delay);
+
+        if(load == null) return delay;
+
+        int bestShift = 0;
+        int bestLoad = Integer.MAX_VALUE;
+
+        for(int shift = 0; shift < load.length; shift++) {
+            int phaseLoad = load[(int) ((firstRun + shift) % load.length)];
+
+            if(phaseLoad < bestLoad) {
+                bestLoad = phaseLoad;
+                bestShift = shift;
+            }
+        }
+
+        return Math.max(1, delay) + bestShift;
+    }
+
+    /**
+     * Records a task scheduled after given delay and returns its phase or -1 if the interval is not tracked.
+     */
+    int track(long interval, long delay) {
+        if(!isTracked(interval)) return -1;
+
+        int[] load = phases.computeIfAbsent(interval, key -> new int[phaseCount(interval)]);
+        int phase = (int) ((currentTick() + Math.max(1, delay)) % load.length);
+
+        load[phase]++;
+        return phase;
+    }
+
+    /**
+     * Removes a task recorded by {@link #track(long, long)}.
+     */
+    void untrack(long interval, int phase) {
+        int[] load = phases.get(interval);
+
+        if(load == null || phase >= load.length || load[phase] == 0) return;
+
+        load[phase]--;
+    }
+
+    /**
+     * Removes the spreader and its histograms. Running tasks forget their phases, so they don't untrack them from a spreader created later.
+     */
+    private void release() {
+        spreaders.remove(plugin, this);
+        phases.clear();
+
+        var registry = BetterTaskRegistry.get(plugin);
+
+        if(registry != null)
+            for(var task : registry.getTasks(BetterRunnable.class))
+                task.phase = -1;
+    }
+
+    private static boolean isTracked(long interval) {
+        return interval <= MAX_PHASES;
+    }
+
+    private static int phaseCount(long interval) {
+        return (int) Math.max(1, interval);
+    }
+
+    private int currentTick() {
+        return TaskSchedulers.get(plugin).getCurrentTick();
+    }
+
+}
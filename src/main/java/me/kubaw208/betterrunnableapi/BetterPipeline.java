@@ -0,0 +1,227 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.structs.LatencyHistogram;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Chain of stages executed one after another, each on the main thread or asynchronously, for example "load async -> apply on the main thread -> save async".
+ * Every stage receives the value returned by the previous stage. Consecutive stages on the same side are executed inline, one after another.
+ * Switching to an asynchronous stage hands the run over to the executor and switching to a synchronous stage hands it over to {@link BetterMainThreadQueue},
+ * so no hop registers a new task in the scheduler.
+ * <br><br>
+ * Pipeline is a reusable definition, every {@link #run(Object)} creates a new {@link BetterPipelineTask}. Stages must be added before the first run.
+ * Stages record their latency over all runs.
+ *
+ * @param <I> type of the input of the pipeline.
+ * @param <O> type of the value returned by the last stage.
+ */
+@Getter
+public final class BetterPipeline<I, O> {
+
+    private final JavaPlugin plugin;
+    @Getter(AccessLevel.NONE) private final List<Stage> stages = new ArrayList<>();
+    @Getter(AccessLevel.NONE) private volatile Stage[] frozenStages;
+    private volatile Executor executor = null;
+    @Getter(AccessLevel.NONE) volatile Consumer<Throwable> errorAction = null;
+    /**
+     * Durations of completed runs, from start of a run to the end of its last stage.
+     */
+    private final LatencyHistogram runTimes = new LatencyHistogram();
+
+    private BetterPipeline(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Creates a new pipeline without stages.
+     * @param plugin plugin main class that runs the pipeline.
+     * @param <T> type of the input of the pipeline.
+     */
+    public static <T> BetterPipeline<T, T> create(JavaPlugin plugin) {
+        return new BetterPipeline<>(plugin);
+    }
+
+    /**
+     * Adds a stage executed on the main thread.
+     * @param name name of the stage used in stage statistics and error messages.
+     * @param function function that receives value of the previous stage and returns value for the next stage.
+     */
+    public <R> BetterPipeline<I, R> sync(String name, Function<? super O, ? extends R> function) {
+        return addStage(name, false, function);
+    }
+
+    /** @see #sync(String, Function) */
+    public <R> BetterPipeline<I, R> sync(Function<? super O, ? extends R> function) {
+        return sync(null, function);
+    }
+
+    /**
+     * Adds a stage executed asynchronously, on the executor of the pipeline.
+     * @see #sync(String, Function)
+     * @see #setExecutor(Executor)
+     */
+    public <R> BetterPipeline<I, R> async(String name, Function<? super O, ? extends R> function) {
+        return addStage(name, true, function);
+    }
+
+    /** @see #async(String, Function) */
+    public <R> BetterPipeline<I, R> async(Function<? super O, ? extends R> function) {
+        return async(null, function);
+    }
+
+    /**
+     * Adds a stage executed on the main thread that passes the value it receives to the next stage.
+     * @see #sync(String, Function)
+     */
+    public BetterPipeline<I, O> syncAccept(String name, Consumer<? super O> action) {
+        return sync(name, passThrough(action));
+    }
+
+    /** @see #syncAccept(String, Consumer) */
+    public BetterPipeline<I, O> syncAccept(Consumer<? super O> action) {
+        return syncAccept(null, action);
+    }
+
+    /**
+     * Adds a stage executed asynchronously that passes the value it receives to the next stage.
+     * @see #async(String, Function)
+     */
+    public BetterPipeline<I, O> asyncAccept(String name, Consumer<? super O> action) {
+        return async(name, passThrough(action));
+    }
+
+    /** @see #asyncAccept(String, Consumer) */
+    public BetterPipeline<I, O> asyncAccept(Consumer<? super O> action) {
+        return asyncAccept(null, action);
+    }
+
+    /**
+     * Sets executor of asynchronous stages. Takes effect from the next hop to an asynchronous stage.
+     * @param executor executor or null to use {@link BetterExecutors#getDefaultExecutor()}, or {@link BetterExecutors#getSharedPool()} if no default executor was set.
+     * @see BetterExecutors#virtualThreads()
+     */
+    public BetterPipeline<I, O> setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets action executed on the main thread when a stage throws an exception. The run is stopped and its remaining stages are skipped.
+     * @param errorAction action or null to log exceptions.
+     */
+    public BetterPipeline<I, O> setErrorAction(Consumer<Throwable> errorAction) {
+        this.errorAction = errorAction;
+        return this;
+    }
+
+    /**
+     * Stages of the pipeline with their statistics.
+     */
+    public List<Stage> getStages() {
+        synchronized(stages) {
+            return List.copyOf(stages);
+        }
+    }
+
+    /**
+     * Starts a new run of the pipeline. If the first stage is on the side of the calling thread, it is executed immediately, before this method returns.
+     * @param group tasks group that the run is added to before it starts if a group is not null.
+     *              Stopping the group cancels the run and pausing it holds the run before its next stage.
+     * @param input value passed to the first stage.
+     * @return the run.
+     */
+    public BetterPipelineTask<O> run(BetterRunnableGroup group, I input) {
+        var task = new BetterPipelineTask<O>(this, freeze(), input);
+
+        if(group != null)
+            group.addTask(task);
+
+        task.start();
+        return task;
+    }
+
+    /** @see #run(BetterRunnableGroup, Object) */
+    public BetterPipelineTask<O> run(I input) {
+        return run(null, input);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> BetterPipeline<I, R> addStage(String name, boolean async, Function<? super O, ? extends R> function) {
+        synchronized(stages) {
+            if(frozenStages != null)
+                throw new IllegalStateException("Stages can't be added after the pipeline was run");
+
+            stages.add(new Stage(name != null ? name : "stage " + (stages.size() + 1), async, (Function<Object, Object>) function));
+        }
+
+        return (BetterPipeline<I, R>) this;
+    }
+
+    /**
+     * Returns stages as an array that is shared by all runs. Adding stages is not possible afterwards.
+     */
+    private Stage[] freeze() {
+        var frozenStages = this.frozenStages;
+
+        if(frozenStages != null) return frozenStages;
+
+        synchronized(stages) {
+            if(this.frozenStages == null)
+                this.frozenStages = stages.toArray(new Stage[0]);
+
+            return this.frozenStages;
+        }
+    }
+
+    private static <T> Function<T, T> passThrough(Consumer<? super T> action) {
+        return value -> {
+            action.accept(value);
+            return value;
+        };
+    }
+
+    /**
+     * Stage of a pipeline with latency statistics over all runs.
+     */
+    @Getter
+    public static final class Stage {
+
+        private final String name;
+        private final boolean async;
+        @Getter(AccessLevel.NONE) final Function<Object, Object> function;
+        /**
+         * Durations of executions of the stage.
+         */
+        private final LatencyHistogram executionTimes = new LatencyHistogram();
+        /**
+         * Durations from the end of the previous stage (or start of the run) to the start of the stage.
+         * Inline stages wait close to 0, stages after a hop wait for the executor or the main thread.
+         */
+        private final LatencyHistogram waitTimes = new LatencyHistogram();
+        @Getter(AccessLevel.NONE) final AtomicLong failures = new AtomicLong();
+
+        private Stage(String name, boolean async, Function<Object, Object> function) {
+            this.name = name;
+            this.async = async;
+            this.function = function;
+        }
+
+        /**
+         * Number of executions of the stage that threw an exception.
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+    }
+
+}
@@ -0,0 +1,333 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import me.kubaw208.betterrunnableapi.structs.PauseType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Single run of a {@link BetterPipeline}. Created and started by {@link BetterPipeline#run(BetterRunnableGroup, Object)}.
+ * Run is executed once. Once all stages are executed, the run stops itself and keeps the value of the last stage as its result.
+ * <br><br>
+ * Stopping the run cancels it. A stage that is being executed finishes, but its value is dropped and the remaining stages are skipped.
+ * Pausing the run holds it before its next stage, the held stage continues after unpause.
+ *
+ * @param <O> type of the result.
+ */
+@Getter
+public class BetterPipelineTask<O> extends BetterTask {
+
+    private final BetterPipeline<?, O> pipeline;
+    protected final JavaPlugin plugin;
+    protected final TaskScheduler scheduler;
+    @Getter(AccessLevel.NONE) private final BetterPipeline.Stage[] stages;
+    @Getter(AccessLevel.NONE) private final boolean async;
+    @Getter(AccessLevel.NONE) private Object value;
+    /**
+     * Index of the stage that is executed or waits for execution. Equals number of stages once the run is completed.
+     */
+    private volatile int stage = 0;
+    @Getter(AccessLevel.NONE) private boolean started = false;
+    @Getter(AccessLevel.NONE) private boolean holding = false;
+    @Getter(AccessLevel.NONE) private long startTime;
+    @Getter(AccessLevel.NONE) private long handedOverTime;
+    protected volatile boolean isStopped = true;
+    private volatile boolean completed = false;
+    /**
+     * Exception thrown by a stage or null if no stage failed.
+     */
+    private volatile Throwable failure = null;
+
+    BetterPipelineTask(BetterPipeline<?, O> pipeline, BetterPipeline.Stage[] stages, Object input) {
+        this.pipeline = pipeline;
+        this.plugin = pipeline.getPlugin();
+        this.scheduler = TaskSchedulers.get(plugin);
+        this.stages = stages;
+        this.value = input;
+
+        boolean async = false;
+
+        for(var stage : stages)
+            async |= stage.isAsync();
+
+        this.async = async;
+    }
+
+    /**
+     * Pipelines have no single task code, so this always returns null.
+     */
+    @Override
+    public Consumer<BetterTask> getTask() {
+        return null;
+    }
+
+    @Override
+    public PauseType getPauseType() {
+        return PauseType.AUTOMATIC;
+    }
+
+    /**
+     * Runs are never scheduled in the scheduler, so this always returns null.
+     */
+    @Override
+    public Object getRunnableID() {
+        return null;
+    }
+
+    @Override
+    public long getDelay() {
+        return 0;
+    }
+
+    @Override
+    public long getInterval() {
+        return -1;
+    }
+
+    /**
+     * Number of executed stages.
+     */
+    @Override
+    public long getExecutions() {
+        return stage;
+    }
+
+    /**
+     * Returns true if the pipeline has an asynchronous stage. Else returns false.
+     */
+    @Override
+    public boolean isAsync() {
+        return async;
+    }
+
+    @Override
+    public boolean isDelayed() {
+        return true;
+    }
+
+    /**
+     * Returns true if the run was stopped before all its stages were executed without a failure. Else returns false.
+     */
+    public boolean isCancelled() {
+        return isStopped && started && !completed && failure == null;
+    }
+
+    /**
+     * Value returned by the last stage or null if the run is not completed.
+     */
+    @SuppressWarnings("unchecked")
+    public O getResult() {
+        return completed ? (O) value : null;
+    }
+
+    /**
+     * Starts the run. Does nothing if the run was already started, so a stopped run can't be started again.
+     */
+    @Override
+    public void start() {
+        synchronized(this) {
+            if(started) return;
+
+            started = true;
+            isStopped = false;
+            register();
+            startTime = scheduler.nanoTime();
+            handedOverTime = startTime;
+
+            if(isAnyPaused()) {
+                holding = true;
+                return;
+            }
+        }
+
+        if(stages.length == 0)
+            finish();
+        else
+            dispatch(true);
+    }
+
+    @Override
+    void schedule(long delay) {
+        dispatch(false);
+    }
+
+    /**
+     * Hands the run over to the side of its current stage.
+     * @param inline if true and the calling thread is on the side of the stage, the stage is executed immediately.
+     */
+    private void dispatch(boolean inline) {
+        boolean stageAsync = stages[stage].isAsync();
+
+        if(inline && stageAsync != scheduler.isPrimaryThread()) {
+            execute();
+            return;
+        }
+
+        if(!stageAsync) {
+            runOnMainThread(executeAction);
+            return;
+        }
+
+        var executor = pipeline.getExecutor();
+
+        if(executor == null)
+            executor = BetterExecutors.getDefaultExecutor();
+
+        if(executor == null)
+            executor = BetterExecutors.getSharedPool();
+
+        executor.execute(executeAction);
+    }
+
+    /**
+     * Executes the current stage and all following stages on the same side, then hands the run over to the other side.
+     */
+    @Override
+    public void execute() {
+        while(true) {
+            synchronized(this) {
+                if(isStopped) return;
+
+                if(isAnyPaused()) {
+                    holding = true;
+                    return;
+                }
+            }
+
+            var current = stages[stage];
+            long start = scheduler.nanoTime();
+
+            current.getWaitTimes().record(start - handedOverTime);
+
+            try {
+                value = current.function.apply(value);
+            } catch(Throwable throwable) {
+                current.failures.incrementAndGet();
+                fail(current, throwable);
+                return;
+            }
+
+            long end = scheduler.nanoTime();
+
+            current.getExecutionTimes().record(end - start);
+            handedOverTime = end;
+            stage++;
+
+            if(stage == stages.length) {
+                finish();
+                return;
+            }
+
+            if(stages[stage].isAsync() != current.isAsync()) {
+                dispatch(false);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Completes the run after its last stage.
+     */
+    private void finish() {
+        synchronized(this) {
+            if(isStopped) return;
+
+            completed = true;
+        }
+
+        pipeline.getRunTimes().record(scheduler.nanoTime() - startTime);
+        stopAfterRun();
+    }
+
+    private void fail(BetterPipeline.Stage stage, Throwable throwable) {
+        synchronized(this) {
+            if(isStopped) return;
+
+            failure = throwable;
+        }
+
+        stopAfterRun();
+
+        var errorAction = pipeline.errorAction;
+
+        if(errorAction == null)
+            plugin.getLogger().log(Level.WARNING, "Stage '" + stage.getName() + "' of a pipeline generated an exception", throwable);
+        else if(scheduler.isPrimaryThread())
+            errorAction.accept(throwable);
+        else
+            runOnMainThread(() -> errorAction.accept(throwable));
+    }
+
+    /**
+     * Stops the finished run. Groups are left on the main thread, because the run can finish on an asynchronous thread.
+     */
+    private void stopAfterRun() {
+        if(scheduler.isPrimaryThread()) {
+            stop(true);
+            return;
+        }
+
+        stop(false);
+        runOnMainThread(this::leaveGroups);
+    }
+
+    @Override
+    public boolean stop() {
+        return stop(true);
+    }
+
+    /**
+     * @return true if the run was running. Else returns false.
+     */
+    @Override
+    public boolean stop(boolean removeFromGroups) {
+        if(removeFromGroups)
+            leaveGroups();
+
+        synchronized(this) {
+            if(isStopped) return false;
+
+            isStopped = true;
+            holding = false;
+            unregister();
+            return true;
+        }
+    }
+
+    /**
+     * Hand-overs that are already queued can't be withdrawn, they do nothing once the run is stopped.
+     */
+    @Override
+    boolean cancelRunnable() {
+        return false;
+    }
+
+    @Override
+    synchronized void pauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+        isHardPause = willHardPause;
+        isSoftPause = willSoftPause;
+    }
+
+    @Override
+    void unpauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+        synchronized(this) {
+            isHardPause = willHardPause;
+            isSoftPause = willSoftPause;
+
+            if(!holding || isAnyPaused() || isStopped) return;
+
+            holding = false;
+        }
+
+        if(stage == stages.length)
+            finish();
+        else
+            dispatch(false);
+    }
+
+}
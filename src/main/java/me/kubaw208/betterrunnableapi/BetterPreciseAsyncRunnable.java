@@ -0,0 +1,332 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import me.kubaw208.betterrunnableapi.structs.PauseType;
+import me.kubaw208.betterrunnableapi.structs.RepeatMode;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Asynchronous task class that is repeating in given an interval with possible delay on start, timed independently of the server ticks.
+ * Delay and interval can be shorter than a tick (e.g. 5 ms) and the task keeps its timing even if the main thread lags.
+ * Can be paused and unpaused, remaining time to the next run is kept with nanosecond precision.
+ * <br><br>
+ * Task is timed by {@link BetterExecutors#getTimer()}. Without an executor, the task is executed directly on the timer thread,
+ * so it should be short. Longer or blocking tasks should set an executor.
+ * Times of runs are read from the clock of the task scheduler. Tests driving the task by {@link me.kubaw208.betterrunnableapi.scheduler.InMemoryTaskScheduler}
+ * should move its clock together with the timer, for example with a timer set by {@link BetterExecutors#setTimer(java.util.concurrent.ScheduledExecutorService)}.
+ *
+ * @see RepeatMode
+ */
+@Getter
+public class BetterPreciseAsyncRunnable extends BetterTask {
+
+    protected final JavaPlugin plugin;
+    protected final TaskScheduler scheduler;
+    protected final PauseType pauseType;
+    protected final RepeatMode repeatMode;
+    private final Consumer<BetterTask> task;
+    private ScheduledFuture<?> runnableID;
+    private volatile Executor executor;
+    @Getter(AccessLevel.NONE) private final long delayNanos;
+    @Getter(AccessLevel.NONE) private final long intervalNanos;
+    @Getter(AccessLevel.NONE) private long nextRunNanos;
+    @Getter(AccessLevel.NONE) private long remainingNanos = -1;
+    @Getter(AccessLevel.NONE) private boolean executing = false;
+    /**
+     * Incremented whenever the planned run changes, so runs of a cancelled plan can tell that they are stale.
+     */
+    @Getter(AccessLevel.NONE) private int planGeneration = 0;
+    protected volatile long executions = 0;
+    protected volatile boolean isStopped = true;
+
+    /**
+     * Creates a new precise asynchronous task.
+     * @param plugin plugin main class that runs task.
+     * @param pauseType pause type (default: AUTOMATIC).
+     * @param repeatMode how runs are planned (default: FIXED_RATE).
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param task code in task to execute.
+     * @param delay time to wait before the first run (default: 0).
+     * @param interval time between runs.
+     * @param unit time unit of the delay and the interval.
+     */
+    public BetterPreciseAsyncRunnable(JavaPlugin plugin, PauseType pauseType, RepeatMode repeatMode, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval, TimeUnit unit) {
+        this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
+        this.pauseType = pauseType;
+        this.repeatMode = repeatMode;
+        this.task = task;
+        this.delayNanos = Math.max(0, unit.toNanos(delay));
+        this.intervalNanos = Math.max(1, unit.toNanos(interval));
+
+        start();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /** @see #BetterPreciseAsyncRunnable(JavaPlugin, PauseType, RepeatMode, BetterRunnableGroup, Consumer, long, long, TimeUnit) */
+    public BetterPreciseAsyncRunnable(JavaPlugin plugin, RepeatMode repeatMode, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval, TimeUnit unit) {
+        this(plugin, PauseType.AUTOMATIC, repeatMode, group, task, delay, interval, unit);
+    }
+
+    /** @see #BetterPreciseAsyncRunnable(JavaPlugin, PauseType, RepeatMode, BetterRunnableGroup, Consumer, long, long, TimeUnit) */
+    public BetterPreciseAsyncRunnable(JavaPlugin plugin, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval, TimeUnit unit) {
+        this(plugin, PauseType.AUTOMATIC, RepeatMode.FIXED_RATE, group, task, delay, interval, unit);
+    }
+
+    /** @see #BetterPreciseAsyncRunnable(JavaPlugin, PauseType, RepeatMode, BetterRunnableGroup, Consumer, long, long, TimeUnit) */
+    public BetterPreciseAsyncRunnable(JavaPlugin plugin, RepeatMode repeatMode, Consumer<BetterTask> task, long delay, long interval, TimeUnit unit) {
+        this(plugin, PauseType.AUTOMATIC, repeatMode, null, task, delay, interval, unit);
+    }
+
+    /** @see #BetterPreciseAsyncRunnable(JavaPlugin, PauseType, RepeatMode, BetterRunnableGroup, Consumer, long, long, TimeUnit) */
+    public BetterPreciseAsyncRunnable(JavaPlugin plugin, Consumer<BetterTask> task, long delay, long interval, TimeUnit unit) {
+        this(plugin, PauseType.AUTOMATIC, RepeatMode.FIXED_RATE, null, task, delay, interval, unit);
+    }
+
+    /** @see #BetterPreciseAsyncRunnable(JavaPlugin, PauseType, RepeatMode, BetterRunnableGroup, Consumer, long, long, TimeUnit) */
+    public BetterPreciseAsyncRunnable(JavaPlugin plugin, Consumer<BetterTask> task, long interval, TimeUnit unit) {
+        this(plugin, PauseType.AUTOMATIC, RepeatMode.FIXED_RATE, null, task, 0, interval, unit);
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    public boolean isDelayed() {
+        return false;
+    }
+
+    /**
+     * Delay of the task in ticks, rounded down.
+     * @see #getDelay(TimeUnit)
+     */
+    @Override
+    public long getDelay() {
+        return TimeUnit.NANOSECONDS.toMillis(delayNanos) / MILLIS_PER_TICK;
+    }
+
+    /**
+     * Delay of the task in given time unit.
+     */
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Interval of the task in ticks, rounded down.
+     * @see #getInterval(TimeUnit)
+     */
+    @Override
+    public long getInterval() {
+        return TimeUnit.NANOSECONDS.toMillis(intervalNanos) / MILLIS_PER_TICK;
+    }
+
+    /**
+     * Interval of the task in given time unit.
+     */
+    public long getInterval(TimeUnit unit) {
+        return unit.convert(intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time remaining to the next run in given time unit or -1 if the task is stopped.
+     * For a paused task, returns time that will remain after unpause.
+     */
+    public synchronized long getRemaining(TimeUnit unit) {
+        if(isStopped) return -1;
+        if(remainingNanos >= 0) return unit.convert(remainingNanos, TimeUnit.NANOSECONDS);
+
+        return unit.convert(Math.max(0, nextRunNanos - now()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets executor that executes the task. Takes effect from the next run.
+     * @param executor executor or null to execute the task on the timer thread.
+     * @see BetterExecutors#virtualThreads()
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void start() {
+        long delay;
+
+        if(isStopped)
+            delay = delayNanos;
+        else if(remainingNanos >= 0)
+            delay = remainingNanos;
+        else
+            delay = Math.max(0, nextRunNanos - now());
+
+        remainingNanos = -1;
+
+        cancelRunnable();
+        scheduleNanos(delay);
+
+        isStopped = false;
+        register();
+    }
+
+    @Override
+    void schedule(long delay) {
+        scheduleNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay) * MILLIS_PER_TICK));
+    }
+
+    /**
+     * Time read from the clock of the task scheduler, so the task can be driven by {@link me.kubaw208.betterrunnableapi.scheduler.InMemoryTaskScheduler} in tests.
+     */
+    private long now() {
+        return scheduler.nanoTime();
+    }
+
+    private synchronized void scheduleNanos(long delay) {
+        int generation = ++planGeneration;
+
+        nextRunNanos = now() + delay;
+        planExecution(TimeUnit.NANOSECONDS.toMillis(delay) / MILLIS_PER_TICK);
+        runnableID = BetterExecutors.getTimer().schedule(() -> trigger(generation), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Called by the timer when the task is due. Hands execution over to the executor if the task has one.
+     * @param generation generation of the plan that fired.
+     */
+    private void trigger(int generation) {
+        var executor = this.executor;
+
+        if(executor != null)
+            executor.execute(() -> run(generation));
+        else
+            run(generation);
+    }
+
+    /**
+     * Executes the task and plans its next run. Runs are planned only after an execution has finished, so they never overlap.
+     * Does nothing if the plan that fired was cancelled or replaced, for example by pausing or restarting the task before a queued run was executed.
+     * @param generation generation of the plan that fired.
+     */
+    private void run(int generation) {
+        synchronized(this) {
+            if(generation != planGeneration || isStopped || (pauseType == PauseType.AUTOMATIC && isAnyPaused())) return;
+
+            executing = true;
+        }
+
+        try {
+            execute();
+        } catch(Throwable throwable) {
+            // Exceptions thrown on the timer thread would be kept in the scheduled future and never reported
+            plugin.getLogger().log(Level.WARNING, "Precise asynchronous task generated an exception", throwable);
+        } finally {
+            synchronized(this) {
+                executing = false;
+
+                // Task was stopped, paused or restarted during its execution
+                if(generation == planGeneration && !isStopped) {
+                    long now = now();
+                    long nextRun = repeatMode == RepeatMode.FIXED_RATE ? nextRunNanos + intervalNanos : now + intervalNanos;
+
+                    scheduleNanos(Math.max(0, nextRun - now));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean stop() {
+        return stop(true);
+    }
+
+    /**
+     * @param removeFromGroups if true, the task will be removed from all groups
+     * @see #stop()
+     */
+    @Override
+    public boolean stop(boolean removeFromGroups) {
+        if(removeFromGroups)
+            leaveGroups();
+
+        synchronized(this) {
+            isStopped = true;
+            unregister();
+            executions = 0;
+            remainingNanos = -1;
+
+            return cancelRunnable();
+        }
+    }
+
+    @Override
+    boolean cancelRunnable() {
+        planGeneration++;
+
+        if(runnableID == null) return false;
+
+        runnableID.cancel(false);
+        runnableID = null;
+        return true;
+    }
+
+    @Override
+    public void execute() {
+        long measuringStart = startMeasuring();
+
+        try {
+            task.accept(this);
+        } finally {
+            finishMeasuring(measuringStart);
+        }
+
+        if(Long.MAX_VALUE != executions + 1)
+            executions++;
+    }
+
+    @Override
+    synchronized void pauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+        boolean wasTaskPreviousPaused = wasHardPause || wasSoftPause;
+        boolean willTaskBePaused = willHardPause || willSoftPause;
+
+        isHardPause = willHardPause;
+        isSoftPause = willSoftPause;
+
+        if(wasTaskPreviousPaused || !willTaskBePaused || isStopped || pauseType != PauseType.AUTOMATIC) return;
+
+        long now = now();
+
+        // Paused during an execution, so the run after it has not been planned yet
+        if(executing)
+            remainingNanos = repeatMode == RepeatMode.FIXED_RATE ? Math.max(0, nextRunNanos + intervalNanos - now) : intervalNanos;
+        else
+            remainingNanos = Math.max(0, nextRunNanos - now);
+
+        cancelRunnable();
+    }
+
+    @Override
+    synchronized void unpauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause) {
+        boolean wasTaskPreviousPaused = wasHardPause || wasSoftPause;
+        boolean willTaskBePaused = willHardPause || willSoftPause;
+
+        isHardPause = willHardPause;
+        isSoftPause = willSoftPause;
+
+        if(!wasTaskPreviousPaused || willTaskBePaused || isStopped || pauseType != PauseType.AUTOMATIC) return;
+
+        start();
+    }
+
+}
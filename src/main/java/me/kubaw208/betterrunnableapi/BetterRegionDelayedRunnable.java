@@ -0,0 +1,122 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.function.Consumer;
+
+/**
+ * Synchronous delayed task class that is executed once after given delay and is bound to a location or an entity.
+ * On Folia, the task runs on the region that owns its location or entity. Entity tasks follow the entity between regions
+ * and are stopped when the entity is removed. On other servers, the task runs on the main thread like {@link BetterDelayedRunnable}.
+ * <br><br>
+ * Region tasks are never driven by {@link BetterTaskDispatcher}.
+ * Can be paused and unpaused.
+ */
+@Getter
+public class BetterRegionDelayedRunnable extends BetterDelayedRunnable {
+
+    private final Location location;
+    private final Entity entity;
+    @Getter(AccessLevel.NONE) private final Runnable retiredAction = this::retire;
+    @Getter(AccessLevel.NONE) private boolean starting = false;
+    @Getter(AccessLevel.NONE) private boolean retiredOnStart = false;
+
+    /**
+     * Creates a new synchronous delayed task bound to a location.
+     * @param plugin plugin main class that runs task.
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param location location whose region runs the task.
+     * @param task code in task to execute.
+     * @param delay time in ticks to wait before the run (default: 0).
+     */
+    public BetterRegionDelayedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Location location, Consumer<BetterTask> task, long delay) {
+        this(plugin, group, location.clone(), null, task, delay);
+    }
+
+    /** @see #BetterRegionDelayedRunnable(JavaPlugin, BetterRunnableGroup, Location, Consumer, long) */
+    public BetterRegionDelayedRunnable(JavaPlugin plugin, Location location, Consumer<BetterTask> task, long delay) {
+        this(plugin, null, location, task, delay);
+    }
+
+    /**
+     * Creates a new synchronous delayed task bound to an entity.
+     * @param plugin plugin main class that runs task.
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param entity entity whose region runs the task. The task is stopped when the entity is removed.
+     * @param task code in task to execute.
+     * @param delay time in ticks to wait before the run (default: 0).
+     */
+    public BetterRegionDelayedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Entity entity, Consumer<BetterTask> task, long delay) {
+        this(plugin, group, null, entity, task, delay);
+    }
+
+    /** @see #BetterRegionDelayedRunnable(JavaPlugin, BetterRunnableGroup, Entity, Consumer, long) */
+    public BetterRegionDelayedRunnable(JavaPlugin plugin, Entity entity, Consumer<BetterTask> task, long delay) {
+        this(plugin, null, entity, task, delay);
+    }
+
+    private BetterRegionDelayedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Location location, Entity entity, Consumer<BetterTask> task, long delay) {
+        super(plugin, task, delay, false);
+        this.location = location;
+        this.entity = entity;
+
+        start();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Stops the task if its entity was already removed when the task was started.
+     */
+    @Override
+    public void start() {
+        starting = true;
+
+        try {
+            super.start();
+        } finally {
+            starting = false;
+        }
+
+        if(retiredOnStart) {
+            retiredOnStart = false;
+            stop(true);
+        }
+    }
+
+    @Override
+    void schedule(long delay) {
+        planExecution(delay);
+
+        var scheduledTask = entity != null
+                ? scheduler.runForEntity(plugin, entity, executeAction, retiredAction, delay, 0)
+                : scheduler.runAtLocation(plugin, location, executeAction, delay, 0);
+
+        if(!scheduledTask.isCancelled()) {
+            taskID = scheduledTask.getTaskId();
+            return;
+        }
+
+        // Entity was already removed. If the task is being started, it is stopped once start() marks it as running
+        taskID = NOT_SCHEDULED;
+
+        if(starting)
+            retiredOnStart = true;
+        else
+            retire();
+    }
+
+    /**
+     * Stops the task after its entity was removed.
+     */
+    private void retire() {
+        taskID = NOT_SCHEDULED;
+        stop(true);
+    }
+
+}
@@ -0,0 +1,138 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.structs.PauseType;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.function.Consumer;
+
+/**
+ * Synchronous task class that is repeating in given an interval and is bound to a location or an entity.
+ * On Folia, the task runs on the region that owns its location or entity. Entity tasks follow the entity between regions
+ * and are stopped when the entity is removed. On other servers, the task runs on the main thread like {@link BetterRunnable}.
+ * <br><br>
+ * Region tasks are never driven by {@link BetterTaskDispatcher}. They can be added to groups, but groups shared by tasks
+ * of different regions should be concurrent (created with a plugin).
+ * Can be paused and unpaused.
+ */
+@Getter
+public class BetterRegionRunnable extends BetterRunnable {
+
+    private final Location location;
+    private final Entity entity;
+    @Getter(AccessLevel.NONE) private final Runnable retiredAction = this::retire;
+    @Getter(AccessLevel.NONE) private boolean starting = false;
+    @Getter(AccessLevel.NONE) private boolean retiredOnStart = false;
+
+    /**
+     * Creates a new synchronous task bound to a location.
+     * @param plugin plugin main class that runs task.
+     * @param pauseType pause type (default: AUTOMATIC).
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param location location whose region runs the task.
+     * @param task code in task to execute.
+     * @param delay time in ticks to wait before the first run (default: 0).
+     * @param interval time in ticks between runs.
+     */
+    public BetterRegionRunnable(JavaPlugin plugin, PauseType pauseType, BetterRunnableGroup group, Location location, Consumer<BetterTask> task, long delay, long interval) {
+        this(plugin, pauseType, group, location.clone(), null, task, delay, interval);
+    }
+
+    /** @see #BetterRegionRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Location, Consumer, long, long) */
+    public BetterRegionRunnable(JavaPlugin plugin, Location location, Consumer<BetterTask> task, long delay, long interval) {
+        this(plugin, PauseType.AUTOMATIC, null, location, task, delay, interval);
+    }
+
+    /** @see #BetterRegionRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Location, Consumer, long, long) */
+    public BetterRegionRunnable(JavaPlugin plugin, Location location, Consumer<BetterTask> task, long interval) {
+        this(plugin, PauseType.AUTOMATIC, null, location, task, 0, interval);
+    }
+
+    /**
+     * Creates a new synchronous task bound to an entity.
+     * @param plugin plugin main class that runs task.
+     * @param pauseType pause type (default: AUTOMATIC).
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param entity entity whose region runs the task. The task is stopped when the entity is removed.
+     * @param task code in task to execute.
+     * @param delay time in ticks to wait before the first run (default: 0).
+     * @param interval time in ticks between runs.
+     */
+    public BetterRegionRunnable(JavaPlugin plugin, PauseType pauseType, BetterRunnableGroup group, Entity entity, Consumer<BetterTask> task, long delay, long interval) {
+        this(plugin, pauseType, group, null, entity, task, delay, interval);
+    }
+
+    /** @see #BetterRegionRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Entity, Consumer, long, long) */
+    public BetterRegionRunnable(JavaPlugin plugin, Entity entity, Consumer<BetterTask> task, long delay, long interval) {
+        this(plugin, PauseType.AUTOMATIC, null, entity, task, delay, interval);
+    }
+
+    /** @see #BetterRegionRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Entity, Consumer, long, long) */
+    public BetterRegionRunnable(JavaPlugin plugin, Entity entity, Consumer<BetterTask> task, long interval) {
+        this(plugin, PauseType.AUTOMATIC, null, entity, task, 0, interval);
+    }
+
+    private BetterRegionRunnable(JavaPlugin plugin, PauseType pauseType, BetterRunnableGroup group, Location location, Entity entity, Consumer<BetterTask> task, long delay, long interval) {
+        super(plugin, pauseType, task, delay, interval, false);
+        this.location = location;
+        this.entity = entity;
+
+        start();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Stops the task if its entity was already removed when the task was started.
+     */
+    @Override
+    public void start() {
+        starting = true;
+
+        try {
+            super.start();
+        } finally {
+            starting = false;
+        }
+
+        if(retiredOnStart) {
+            retiredOnStart = false;
+            stop(true);
+        }
+    }
+
+    @Override
+    void schedule(long delay) {
+        planExecution(delay);
+
+        var scheduledTask = entity != null
+                ? scheduler.runForEntity(plugin, entity, executeAction, retiredAction, delay, effectiveInterval)
+                : scheduler.runAtLocation(plugin, location, executeAction, delay, effectiveInterval);
+
+        if(!scheduledTask.isCancelled()) {
+            taskID = scheduledTask.getTaskId();
+            return;
+        }
+
+        // Entity was already removed. If the task is being started, it is stopped once start() marks it as running
+        taskID = NOT_SCHEDULED;
+
+        if(starting)
+            retiredOnStart = true;
+        else
+            retire();
+    }
+
+    /**
+     * Stops the task after its entity was removed.
+     */
+    private void retire() {
+        taskID = NOT_SCHEDULED;
+        stop(true);
+    }
+
+}
@@ -3,12 +3,11 @@ package me.kubaw208.betterrunnableapi;
 import lombok.AccessLevel;
 import lombok.Getter;
 import me.kubaw208.betterrunnableapi.structs.PauseType;
-import org.bukkit.Bukkit;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -19,19 +18,28 @@ import java.util.function.Consumer;
 public class BetterRunnable extends BetterTask {
 
     protected final JavaPlugin plugin;
-    protected final Set<BetterRunnableGroup> groups = Collections.newSetFromMap(new WeakHashMap<>());
+    protected final TaskScheduler scheduler;
     protected PauseType pauseType;
     private Consumer<BetterTask> task;
-    protected Object runnableID = null;
+    /**
+     * Scheduler ID of the task, {@link #DISPATCHED} for tasks driven by the dispatcher or {@link #NOT_SCHEDULED}.
+     */
+    @Getter(AccessLevel.NONE) protected int taskID = NOT_SCHEDULED;
     protected long delay;
     protected long interval;
+    /**
+     * Interval currently used by the task. Differs from the interval only when an adaptive interval is stretched because of server load.
+     */
+    protected long effectiveInterval;
+    @Getter(AccessLevel.NONE) protected long maxInterval = 0;
     protected long executions = 0;
     @Getter(AccessLevel.PRIVATE) protected long pauseTime = 0;
     @Getter(AccessLevel.PRIVATE) protected long pausedTime = 0;
-    @Getter(AccessLevel.PRIVATE) protected long taskStartedTime;
     @Getter(AccessLevel.PRIVATE) protected long lastTaskExecutionTime;
     @Getter(AccessLevel.PRIVATE) protected long newDelayAfterPauseTask;
     protected boolean isStopped;
+    protected boolean spreadPhase = false;
+    @Getter(AccessLevel.NONE) protected int phase = -1;
 
     /**
      * Creates a new synchronous task.
@@ -43,17 +51,44 @@ public class BetterRunnable extends BetterTask {
      * @param interval time in ticks between runs.
      */
     public BetterRunnable(JavaPlugin plugin, PauseType pauseType, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval) {
+        this(plugin, pauseType, task, delay, interval, true);
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Creates a new synchronous task with a priority.
+     * @param priority priority of the task or null to inherit priority of its groups.
+     * @see #BetterRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Consumer, long, long)
+     * @see TaskPriority
+     */
+    public BetterRunnable(JavaPlugin plugin, PauseType pauseType, TaskPriority priority, BetterRunnableGroup group, Consumer<BetterTask> task, long delay, long interval) {
+        this(plugin, pauseType, task, delay, interval, true);
+        this.priority = priority;
+
+        if(priority == TaskPriority.CRITICAL)
+            exemptFromRamp();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Creates a new synchronous task and starts it only if requested, so subclasses can initialize their fields before the first schedule.
+     */
+    protected BetterRunnable(JavaPlugin plugin, PauseType pauseType, Consumer<BetterTask> task, long delay, long interval, boolean start) {
         this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
         this.pauseType = pauseType;
         this.task = task;
         this.delay = delay > 0 ? delay : 0;
         this.interval = interval > 0 ? interval : 1;
+        this.effectiveInterval = this.interval;
         this.isStopped = true;
 
-        start();
-
-        if(group != null)
-            group.addTask(this);
+        if(start)
+            start();
     }
 
     /** @see #BetterRunnable(JavaPlugin, PauseType, BetterRunnableGroup, Consumer, long, long) */
@@ -96,6 +131,11 @@ public class BetterRunnable extends BetterTask {
         return false;
     }
 
+    @Override
+    public Object getRunnableID() {
+        return runnableID(taskID);
+    }
+
     @Override
     public boolean isDelayed() {
         return false;
@@ -103,19 +143,70 @@ public class BetterRunnable extends BetterTask {
 
     @Override
     public void start() {
-        if(isStopped) {
-            taskStartedTime = Bukkit.getCurrentTick();
-            lastTaskExecutionTime = Bukkit.getCurrentTick();
-        }
+        if(isStopped)
+            lastTaskExecutionTime = scheduler.getCurrentTick();
 
-        if(runnableID != null) {
-            Bukkit.getScheduler().cancelTask((int) runnableID);
-            runnableID = null;
-        }
+        cancelRunnable();
+
+        if(isStopped)
+            effectiveInterval = adaptedInterval();
 
-        runnableID = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this::execute, (isStopped ?  delay : newDelayAfterPauseTask), interval);
+        if(isStopped && isSpreadingPhase())
+            schedule(BetterPhaseSpreader.of(plugin).spread(effectiveInterval, rampDelay(delay)));
+        else
+            schedule(isStopped ? rampDelay(delay) : newDelayAfterPauseTask);
 
         isStopped = false;
+        register();
+    }
+
+    @Override
+    void schedule(long delay) {
+        planExecution(delay);
+
+        var dispatcher = BetterTaskDispatcher.get(plugin);
+
+        if(dispatcher != null) {
+            dispatcher.schedule(this, delay, effectiveInterval);
+            taskID = DISPATCHED;
+        } else {
+            taskID = scheduler.scheduleSyncRepeatingTask(plugin, executeAction, delay, effectiveInterval);
+        }
+
+        var spreader = BetterPhaseSpreader.get(plugin);
+
+        if(spreader == null) return;
+
+        // Tasks handed over by a disabled dispatcher are scheduled again without being cancelled
+        if(phase >= 0)
+            spreader.untrack(effectiveInterval, phase);
+
+        phase = spreader.track(effectiveInterval, delay);
+    }
+
+    /**
+     * Returns true if the task is spread to the least loaded phase of its interval when started.
+     * @see BetterPhaseSpreader
+     */
+    public boolean isSpreadingPhase() {
+        if(spreadPhase) return true;
+
+        var spreader = BetterPhaseSpreader.get(plugin);
+        return spreader != null && spreader.isAutomatic();
+    }
+
+    /**
+     * Enables or disables phase spreading of the synchronous task.
+     * If enabled on a running task, the task is immediately moved to the least loaded phase of its interval.
+     * @see BetterPhaseSpreader
+     */
+    public void setSpreadPhase(boolean spreadPhase) {
+        this.spreadPhase = spreadPhase;
+
+        if(!spreadPhase || isStopped || taskID == NOT_SCHEDULED) return;
+
+        cancelRunnable();
+        schedule(BetterPhaseSpreader.of(plugin).spread(effectiveInterval, 0));
     }
 
     /**
@@ -134,30 +225,114 @@ public class BetterRunnable extends BetterTask {
     @Override
     public boolean stop(boolean removeFromGroups) {
         if(removeFromGroups)
-            while(!groups.isEmpty())
-                groups.iterator().next().removeTask(this);
+            leaveGroups();
 
         isStopped = true;
+        unregister();
 
         executions = 0;
         pauseTime = 0;
         pausedTime = 0;
 
-        if(runnableID == null) return false;
+        return cancelRunnable();
+    }
+
+    /**
+     * Cancels scheduled runs of the task, either in the scheduler or in the dispatcher.
+     * @return true if the task was scheduled. Else returns false.
+     */
+    @Override
+    boolean cancelRunnable() {
+        if(phase >= 0) {
+            var spreader = BetterPhaseSpreader.get(plugin);
+
+            if(spreader != null)
+                spreader.untrack(effectiveInterval, phase);
+
+            phase = -1;
+        }
 
-        Bukkit.getScheduler().cancelTask((int) runnableID);
-        runnableID = null;
+        if(taskID == NOT_SCHEDULED) return false;
+
+        cancelScheduled(taskID);
+        taskID = NOT_SCHEDULED;
         return true;
     }
 
     @Override
     public void execute() {
-        task.accept(this);
-        lastTaskExecutionTime = Bukkit.getCurrentTick();
+        long measuringStart = startMeasuring();
+
+        try {
+            task.accept(this);
+        } finally {
+            finishMeasuring(measuringStart);
+            planExecution(effectiveInterval);
+        }
+
+        finishExecution();
+    }
+
+    /**
+     * Updates execution bookkeeping of the task after its execution.
+     */
+    void finishExecution() {
+        lastTaskExecutionTime = scheduler.getCurrentTick();
         pausedTime = 0;
 
         if(Long.MAX_VALUE != executions + 1)
             executions++;
+
+        adaptInterval();
+    }
+
+    /**
+     * Longest interval to which the interval of the task can be stretched when the server is overloaded.
+     * Equal to the interval if the task is not adaptive.
+     */
+    public long getMaxInterval() {
+        long max = Math.max(maxInterval, interval);
+
+        if(BetterRunnableGroup.adaptiveGroups > 0)
+            for(var group : groupArray())
+                max = Math.max(max, (long) (interval * group.getAdaptiveMultiplier()));
+
+        return max;
+    }
+
+    /**
+     * Makes the interval of the task adaptive. When the server is overloaded, the interval is stretched up to given maximum,
+     * and it returns to the normal interval when the load drops. Current interval is returned by {@link #getEffectiveInterval()}.
+     * @param maxInterval longest interval in ticks. Interval of the task or less disables stretching.
+     * @see BetterAdaptiveIntervals
+     */
+    public void setAdaptiveInterval(long maxInterval) {
+        this.maxInterval = maxInterval > interval ? maxInterval : 0;
+    }
+
+    /**
+     * Returns interval matching current load of the server.
+     */
+    long adaptedInterval() {
+        if(maxInterval == 0 && BetterRunnableGroup.adaptiveGroups == 0) return interval;
+
+        return BetterAdaptiveIntervals.stretch(scheduler, interval, getMaxInterval());
+    }
+
+    /**
+     * Reschedules the task if its interval should change because of server load.
+     */
+    private void adaptInterval() {
+        long adaptedInterval = adaptedInterval();
+
+        if(adaptedInterval == effectiveInterval) return;
+
+        boolean wasScheduled = cancelRunnable();
+
+        effectiveInterval = adaptedInterval;
+
+        if(wasScheduled)
+            schedule(adaptedInterval);
     }
 
     @Override
@@ -170,13 +345,11 @@ public class BetterRunnable extends BetterTask {
 
         if(wasTaskPreviousPaused || !willTaskBePaused) return;
 
-        newDelayAfterPauseTask = lastTaskExecutionTime - (Bukkit.getCurrentTick() - pausedTime) + (isStopped ? delay : interval);
-        pauseTime = Bukkit.getCurrentTick();
+        newDelayAfterPauseTask = lastTaskExecutionTime - (scheduler.getCurrentTick() - pausedTime) + (isStopped ? delay : effectiveInterval);
+        pauseTime = scheduler.getCurrentTick();
 
-        if(pauseType == PauseType.AUTOMATIC && runnableID != null) {
-            Bukkit.getScheduler().cancelTask((int) runnableID);
-            runnableID = null;
-        }
+        if(pauseType == PauseType.AUTOMATIC)
+            cancelRunnable();
     }
 
     @Override
@@ -189,7 +362,7 @@ public class BetterRunnable extends BetterTask {
 
         if(!wasTaskPreviousPaused || willTaskBePaused) return;
 
-        pausedTime += Bukkit.getCurrentTick() - pauseTime;
+        pausedTime += scheduler.getCurrentTick() - pauseTime;
 
         if(pauseType == PauseType.AUTOMATIC)
             start();
@@ -1,10 +1,21 @@
 package me.kubaw208.betterrunnableapi;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class representing a group of tasks allows to manage multiple tasks in the same moment.
@@ -15,22 +26,42 @@ import java.util.List;
  * Soft pause is a pause caused by parent (group), at least one parent with soft/hard pause will make its children soft paused.
  * Hard pause is a pause caused by object itself (group/task) and applied to itself.
  * Task will be paused if has any pause (either soft or hard).
+ *
+ * Pause state is maintained incrementally. Every group counts its paused parents and every task counts its paused groups,
+ * so a change of pause state touches only groups and tasks whose effective pause state changes (plus direct children and tasks of those groups).
+ * Adding or removing a task or a child group is O(1) unless it changes the effective pause state.
+ *
+ * Groups created with a plugin are concurrent. Their tasks and groups can be added and removed from any thread,
+ * and pause, unpause, start and stop requested outside the main thread are handed over to the main thread through {@link BetterMainThreadQueue}.
+ * Other groups must be used only from the main thread.
  */
 @Getter
 public final class BetterRunnableGroup {
 
-    private final HashSet<BetterTask> tasks = new HashSet<>();
-    private final HashSet<BetterRunnableGroup> parents = new HashSet<>();
-    private final HashSet<BetterRunnableGroup> children = new HashSet<>();
+    static int budgetedGroups = 0;
+    static int adaptiveGroups = 0;
+
+    private final JavaPlugin plugin;
+    private final Set<BetterTask> tasks;
+    private final Set<BetterRunnableGroup> parents;
+    private final Set<BetterRunnableGroup> children;
     @Setter private boolean savePauseState = true;
-    private boolean isHardPause = false;
-    private boolean isSoftPause = false;
+    private volatile boolean isHardPause = false;
+    private volatile boolean isSoftPause = false;
+    @Getter(AccessLevel.NONE) private int pausedParents = 0;
+    @Getter(AccessLevel.NONE) private long tickBudgetNanos = 0;
+    @Getter(AccessLevel.NONE) private long budgetTick = -1;
+    @Getter(AccessLevel.NONE) private long budgetUsedNanos = 0;
+    long deferredExecutions = 0;
+    private double adaptiveMultiplier = 0;
+    private TaskPriority priority = null;
 
     /**
      * Creates a new tasks group.
      * @param tasks list of tasks to add to the group.
      */
     public BetterRunnableGroup(List<BetterTask> tasks) {
+        this((JavaPlugin) null);
         addTasks(tasks);
     }
 
@@ -39,19 +70,62 @@ public final class BetterRunnableGroup {
      * @param tasks array of tasks to add to the group.
      */
     public BetterRunnableGroup(BetterTask... tasks) {
+        this((JavaPlugin) null);
+        addTasks(tasks);
+    }
+
+    /**
+     * Creates a new concurrent tasks group that can be used from any thread.
+     * @param plugin plugin used to execute pause and stop transitions on the main thread.
+     * @param tasks list of tasks to add to the group.
+     */
+    public BetterRunnableGroup(JavaPlugin plugin, List<BetterTask> tasks) {
+        this(plugin);
         addTasks(tasks);
     }
 
+    /**
+     * Creates a new concurrent tasks group that can be used from any thread.
+     * @param plugin plugin used to execute pause and stop transitions on the main thread.
+     * @param tasks array of tasks to add to the group.
+     */
+    public BetterRunnableGroup(JavaPlugin plugin, BetterTask... tasks) {
+        this(plugin);
+        addTasks(tasks);
+    }
+
+    private BetterRunnableGroup(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.tasks = plugin != null ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+        this.parents = plugin != null ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+        this.children = plugin != null ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    }
+
+    /**
+     * Returns true if the group can be used from any thread. Else returns false.
+     */
+    public boolean isConcurrent() {
+        return plugin != null;
+    }
+
     /**
      * Adds a new task to group.
      */
     public BetterRunnableGroup addTask(BetterTask task) {
-        task.getGroups().add(this);
+        task.groups().add(this);
+
+        boolean added = tasks.add(task);
+
+        if(runOnMainThread(savePauseState ? task::updatePauseState : task::recountPausedGroups)) return this;
+
+        if(task.rampTicks != 0 && getEffectivePriority() == TaskPriority.CRITICAL)
+            task.exemptFromRamp();
 
-        tasks.add(task);
+        if(added && isPaused())
+            task.pausedGroups++;
 
         if(savePauseState)
-            task.updatePauseState();
+            task.applyGroupPause();
         return this;
     }
 
@@ -79,9 +153,16 @@ public final class BetterRunnableGroup {
      * Removes a task from a group.
      */
     public BetterRunnableGroup removeTask(BetterTask task) {
-        task.getGroups().remove(this);
-        tasks.remove(task);
-        task.updatePauseState();
+        task.removeGroup(this);
+
+        boolean removed = tasks.remove(task);
+
+        if(runOnMainThread(task::updatePauseState)) return this;
+
+        if(removed && isPaused())
+            task.pausedGroups--;
+
+        task.applyGroupPause();
         return this;
     }
 
@@ -108,8 +189,13 @@ public final class BetterRunnableGroup {
      */
     public BetterRunnableGroup addChildGroup(BetterRunnableGroup group) {
         group.parents.add(this);
-        children.add(group);
-        group.updatePauseState();
+
+        boolean changed = children.add(group);
+
+        if(runOnMainThread(group::updatePauseState)) return this;
+
+        if(changed && isPaused())
+            group.changePausedParents(1);
         return this;
     }
 
@@ -136,8 +222,13 @@ public final class BetterRunnableGroup {
      */
     public BetterRunnableGroup removeChildGroup(BetterRunnableGroup group) {
         group.parents.remove(this);
-        children.remove(group);
-        group.updatePauseState();
+
+        boolean changed = children.remove(group);
+
+        if(runOnMainThread(group::updatePauseState)) return this;
+
+        if(changed && isPaused())
+            group.changePausedParents(-1);
         return this;
     }
 
@@ -165,6 +256,7 @@ public final class BetterRunnableGroup {
      */
     public BetterRunnableGroup stopAndRemove(BetterTask task) {
         if(task == null || !tasks.contains(task)) return this;
+        if(runOnMainThread(() -> stopAndRemove(task))) return this;
 
         task.stop();
         return this;
@@ -174,14 +266,16 @@ public final class BetterRunnableGroup {
      * Pauses all tasks in the group.
      */
     public BetterRunnableGroup pauseAll() {
-        for(BetterTask task : tasks)
-            task.pause();
+        if(runOnMainThread(this::pauseAll)) return this;
 
-        for(BetterRunnableGroup group : children)
-            group.pauseAll();
+        var groups = collectGroups();
+
+        for(BetterTask task : collectTasks(groups))
+            task.pause();
 
-        isHardPause = true;
-        updatePauseState();
+        // Children first, so pause of this group doesn't propagate through groups that are going to be paused anyway
+        for(int i = groups.size() - 1; i >= 0; i--)
+            groups.get(i).setHardPause(true);
         return this;
     }
 
@@ -189,43 +283,201 @@ public final class BetterRunnableGroup {
      * Unpauses all tasks in the group.
      */
     public BetterRunnableGroup unpauseAll() {
-        for(BetterTask task : tasks)
-            task.unpause();
+        if(runOnMainThread(this::unpauseAll)) return this;
 
-        for(BetterRunnableGroup group : children)
-            group.unpauseAll();
+        var groups = collectGroups();
 
-        isHardPause = false;
-        updatePauseState();
+        // Tasks stay soft paused until their groups are unpaused, so each task is rescheduled at most once
+        for(BetterTask task : collectTasks(groups))
+            task.unpause();
+
+        for(int i = groups.size() - 1; i >= 0; i--)
+            groups.get(i).setHardPause(false);
         return this;
     }
 
+    private boolean isPaused() {
+        return isHardPause || isSoftPause;
+    }
+
+    private void setHardPause(boolean hardPause) {
+        boolean wasPaused = isPaused();
+
+        isHardPause = hardPause;
+        propagatePauseState(wasPaused);
+    }
+
+    private void changePausedParents(int delta) {
+        boolean wasPaused = isPaused();
+
+        pausedParents += delta;
+        isSoftPause = pausedParents > 0;
+        propagatePauseState(wasPaused);
+    }
+
+    /**
+     * If effective pause state of the group has changed, updates counters of direct children and tasks.
+     * Propagation continues only through children whose effective pause state changes as well.
+     */
+    private void propagatePauseState(boolean wasPaused) {
+        boolean paused = isPaused();
+
+        if(paused == wasPaused) return;
+
+        int delta = paused ? 1 : -1;
+
+        for(var child : children)
+            child.changePausedParents(delta);
+
+        for(var task : tasks) {
+            task.pausedGroups += delta;
+            task.applyGroupPause();
+        }
+    }
+
+    /**
+     * Recounts paused parents of the group. Used when membership could have changed outside the main thread.
+     */
     void updatePauseState() {
-        isSoftPause = false;
+        int count = 0;
 
-        for(var parent : parents) {
-            if(parent.isHardPause || parent.isSoftPause) {
-                isSoftPause = true;
-                break;
-            }
+        for(var parent : parents)
+            if(parent.isPaused())
+                count++;
+
+        changePausedParents(count - pausedParents);
+    }
+
+    /**
+     * Time budget for executing tasks of this group in one tick in milliseconds. 0 means no budget.
+     */
+    public double getTickBudget() {
+        return tickBudgetNanos / 1_000_000D;
+    }
+
+    /**
+     * Sets time budget for executing tasks of this group in one tick.
+     * Once the budget is exceeded, remaining due tasks of this group are deferred to the next tick.
+     * Budget applies only to tasks driven by {@link BetterTaskDispatcher} and only to direct members of the group.
+     * @param millis budget in milliseconds. 0 or less disables the budget.
+     */
+    public BetterRunnableGroup setTickBudget(double millis) {
+        boolean wasBudgeted = tickBudgetNanos > 0;
+
+        tickBudgetNanos = millis > 0 ? (long) (millis * 1_000_000D) : 0;
+
+        if(wasBudgeted != tickBudgetNanos > 0)
+            budgetedGroups += wasBudgeted ? -1 : 1;
+        return this;
+    }
+
+    /**
+     * Sets priority of the group. Tasks and child groups without their own priority inherit it.
+     * @param priority priority or null to inherit priority of parent groups.
+     * @see TaskPriority
+     */
+    public BetterRunnableGroup setPriority(TaskPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Priority of the group if set, else the highest priority of its parent groups, else null.
+     */
+    public TaskPriority getEffectivePriority() {
+        if(priority != null) return priority;
+
+        TaskPriority inherited = null;
+
+        for(var parent : parents)
+            inherited = TaskPriority.highest(inherited, parent.getEffectivePriority());
+
+        return inherited;
+    }
+
+    /**
+     * Makes intervals of repeating tasks in this group adaptive. When the server is overloaded,
+     * intervals of direct members of the group are stretched up to given multiple of their normal interval.
+     * @param maxMultiplier maximal stretch of intervals, for example 4 for at most 4 times longer intervals. 1 or less disables stretching.
+     * @see BetterAdaptiveIntervals
+     */
+    public BetterRunnableGroup setAdaptiveInterval(double maxMultiplier) {
+        boolean wasAdaptive = adaptiveMultiplier > 1;
+
+        adaptiveMultiplier = maxMultiplier > 1 ? maxMultiplier : 0;
+
+        if(wasAdaptive != adaptiveMultiplier > 1)
+            adaptiveGroups += wasAdaptive ? -1 : 1;
+        return this;
+    }
+
+    /**
+     * Number of times an execution of the group task was deferred to the next tick because of the group budget.
+     */
+    public long getDeferredExecutions() {
+        return deferredExecutions;
+    }
+
+    boolean isTickBudgetExceeded(long currentTick) {
+        return tickBudgetNanos > 0 && budgetTick == currentTick && budgetUsedNanos >= tickBudgetNanos;
+    }
+
+    void useTickBudget(long nanos, long currentTick) {
+        if(tickBudgetNanos <= 0) return;
+
+        if(budgetTick != currentTick) {
+            budgetTick = currentTick;
+            budgetUsedNanos = 0;
         }
 
-        for(var child : children)
-            child.updatePauseState();
+        budgetUsedNanos += nanos;
+    }
+
+    /**
+     * Returns metrics aggregated from all tasks of the group and its children.
+     * Returned metrics are a snapshot, they are not updated by later executions.
+     * @see BetterTaskMetrics
+     */
+    public BetterTaskMetrics getMetrics() {
+        var metrics = new BetterTaskMetrics();
+
+        for(BetterTask task : collectTasks(collectGroups()))
+            if(task.getMetrics() != null)
+                metrics.add(task.getMetrics());
 
-        for(var task : tasks)
-            task.updatePauseState();
+        return metrics;
     }
 
     /**
-     * Starts all tasks in the group.
+     * Starts all tasks in the group and its children. Every task is started once, even if it is in multiple groups of the hierarchy.
      */
     public BetterRunnableGroup startAll() {
-        for(BetterTask task : tasks)
+        if(runOnMainThread(this::startAll)) return this;
+
+        for(BetterTask task : collectTasks(collectGroups()))
             task.start();
+        return this;
+    }
+
+    /**
+     * Starts all tasks in the group.
+     * @param spreadPhases if true, synchronous repeating tasks are spread evenly across ticks of their interval.
+     * @see BetterPhaseSpreader
+     */
+    public BetterRunnableGroup startAll(boolean spreadPhases) {
+        if(!spreadPhases) return startAll();
+        if(runOnMainThread(() -> startAll(true))) return this;
+
+        for(BetterTask task : collectTasks(collectGroups())) {
+            if(task instanceof BetterRunnable runnable && !task.isAsync()) {
+                runnable.setSpreadPhase(true);
+
+                if(!runnable.isStopped()) continue;
+            }
+
+            task.start();
+        }
 
-        for(BetterRunnableGroup group : children)
-            group.startAll();
         return this;
     }
 
@@ -233,25 +485,74 @@ public final class BetterRunnableGroup {
      * Stops all tasks in the group and removes it from all groups.
      */
     public BetterRunnableGroup stopAll() {
-        while(!tasks.isEmpty())
-            tasks.iterator().next().stop();
-
-        for(BetterRunnableGroup group : children)
-            group.stopAll();
-        return this;
+        return stopAll(true);
     }
 
     /**
-     * Stops all tasks in the group.
+     * Stops all tasks in the group and its children.
+     * Tasks are collected first and removed from their groups in bulk, so stopping doesn't update pause state of tasks that are being stopped.
      * @param removeFromGroups if true, the tasks will be removed from all groups.
      */
     public BetterRunnableGroup stopAll(boolean removeFromGroups) {
-        while(!tasks.isEmpty())
-            tasks.iterator().next().stop(removeFromGroups);
+        if(runOnMainThread(() -> stopAll(removeFromGroups))) return this;
+
+        for(BetterTask task : collectTasks(collectGroups())) {
+            if(removeFromGroups) {
+                for(var group : task.groupArray())
+                    group.tasks.remove(task);
+
+                task.clearGroups();
+                task.pausedGroups = 0;
+                task.isSoftPause = false;
+            }
+
+            task.stop(false);
+        }
 
-        for(BetterRunnableGroup group : children)
-            group.stopAll(removeFromGroups);
         return this;
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns this group and all its descendants, parents always before their children.
+     */
+    private List<BetterRunnableGroup> collectGroups() {
+        var groups = new ArrayList<BetterRunnableGroup>();
+        var visited = Collections.newSetFromMap(new IdentityHashMap<BetterRunnableGroup, Boolean>());
+
+        groups.add(this);
+        visited.add(this);
+
+        for(int i = 0; i < groups.size(); i++)
+            for(var child : groups.get(i).children)
+                if(visited.add(child))
+                    groups.add(child);
+
+        return groups;
+    }
+
+    /**
+     * Returns tasks of given groups. Every task is returned once, even if it is in multiple groups.
+     */
+    private static Collection<BetterTask> collectTasks(List<BetterRunnableGroup> groups) {
+        if(groups.size() == 1) return new ArrayList<>(groups.get(0).tasks);
+
+        var tasks = new LinkedHashSet<BetterTask>();
+
+        for(var group : groups)
+            tasks.addAll(group.tasks);
+
+        return tasks;
+    }
+
+    /**
+     * If the group is concurrent and current thread is not the main thread, schedules action on the main thread.
+     * @return true if action was scheduled. Else returns false and action should be executed in place.
+     */
+    private boolean runOnMainThread(Runnable action) {
+        if(plugin == null || TaskSchedulers.get(plugin).isPrimaryThread()) return false;
+
+        BetterMainThreadQueue.of(plugin).submit(action);
+        return true;
+    }
+
+}
@@ -0,0 +1,193 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.structs.PauseType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Synchronous task class that processes a large collection a slice per tick, so the work doesn't freeze the server.
+ * Every tick, the task processes items until the item limit or the time budget of a slice is reached and continues from the same item in the next tick.
+ * Once all items are processed, the task stops itself and runs its completion action.
+ * <br><br>
+ * Pausing the task keeps its position, so unpaused task continues where it left off. Starting a stopped task continues where it left off as well.
+ * The collection must not be modified while the task processes it.
+ *
+ * @param <T> type of items.
+ */
+@Getter
+public class BetterSlicedRunnable<T> extends BetterRunnable {
+
+    @Getter(AccessLevel.NONE) private final Iterator<? extends T> iterator;
+    @Getter(AccessLevel.NONE) private final Consumer<? super T> action;
+    @Getter(AccessLevel.NONE) private long timeBudgetNanos = 0;
+    @Getter(AccessLevel.NONE) private Runnable completionAction = null;
+    private int itemsPerTick;
+    /**
+     * Number of items to process or -1 if unknown.
+     */
+    private final long totalItems;
+    private long processedItems = 0;
+    /**
+     * Number of ticks in which items were processed.
+     */
+    private long slices = 0;
+    /**
+     * Time spent processing items in nanoseconds.
+     */
+    private long processingTime = 0;
+    private boolean completed = false;
+
+    /**
+     * Creates a new sliced task that processes all items of a collection.
+     * @param plugin plugin main class that runs task.
+     * @param group tasks group that automatically adds a task to that group if a group is not null.
+     * @param items collection of items to process.
+     * @param action action executed for every item.
+     * @param itemsPerTick maximal number of items processed in one tick or 0 for no limit.
+     */
+    public BetterSlicedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Collection<? extends T> items, Consumer<? super T> action, int itemsPerTick) {
+        this(plugin, group, items.iterator(), items.size(), action, itemsPerTick);
+    }
+
+    /**
+     * Creates a new sliced task that processes remaining items of an iterator. Progress and ETA are not known for iterators.
+     * @see #BetterSlicedRunnable(JavaPlugin, BetterRunnableGroup, Collection, Consumer, int)
+     */
+    public BetterSlicedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Iterator<? extends T> items, Consumer<? super T> action, int itemsPerTick) {
+        this(plugin, group, items, -1, action, itemsPerTick);
+    }
+
+    /** @see #BetterSlicedRunnable(JavaPlugin, BetterRunnableGroup, Collection, Consumer, int) */
+    public BetterSlicedRunnable(JavaPlugin plugin, Collection<? extends T> items, Consumer<? super T> action, int itemsPerTick) {
+        this(plugin, null, items, action, itemsPerTick);
+    }
+
+    /** @see #BetterSlicedRunnable(JavaPlugin, BetterRunnableGroup, Iterator, Consumer, int) */
+    public BetterSlicedRunnable(JavaPlugin plugin, Iterator<? extends T> items, Consumer<? super T> action, int itemsPerTick) {
+        this(plugin, null, items, action, itemsPerTick);
+    }
+
+    private BetterSlicedRunnable(JavaPlugin plugin, BetterRunnableGroup group, Iterator<? extends T> iterator, long totalItems, Consumer<? super T> action, int itemsPerTick) {
+        super(plugin, PauseType.AUTOMATIC, BetterSlicedRunnable::process, 0, 1, false);
+        this.iterator = iterator;
+        this.totalItems = totalItems;
+        this.action = action;
+        this.itemsPerTick = Math.max(0, itemsPerTick);
+
+        start();
+
+        if(group != null)
+            group.addTask(this);
+    }
+
+    /**
+     * Sets maximal number of items processed in one tick.
+     * @param itemsPerTick number of items or 0 for no limit.
+     */
+    public void setItemsPerTick(int itemsPerTick) {
+        this.itemsPerTick = Math.max(0, itemsPerTick);
+    }
+
+    /**
+     * Time budget of one slice in milliseconds. 0 means no budget.
+     */
+    public double getTimeBudget() {
+        return timeBudgetNanos / 1_000_000D;
+    }
+
+    /**
+     * Sets time budget of one slice. Once the budget is exceeded, remaining items wait for the next tick. At least one item is processed in every tick.
+     * Without an item limit and a budget, all remaining items are processed in one tick.
+     * @param millis budget in milliseconds. 0 or less disables the budget.
+     */
+    public void setTimeBudget(double millis) {
+        timeBudgetNanos = millis > 0 ? (long) (millis * 1_000_000D) : 0;
+    }
+
+    /**
+     * Sets action executed on the main thread once all items are processed.
+     * @param completionAction action or null.
+     */
+    public void setCompletionAction(Runnable completionAction) {
+        this.completionAction = completionAction;
+    }
+
+    /**
+     * Processed part of the items from 0 to 1 or -1 if the number of items is unknown.
+     */
+    public double getProgress() {
+        if(completed) return 1;
+        if(totalItems < 0) return -1;
+
+        return totalItems == 0 ? 1 : (double) processedItems / totalItems;
+    }
+
+    /**
+     * Estimated number of ticks until all items are processed, based on the average number of items processed per tick so far.
+     * Returns -1 if the number of items is unknown or no items were processed yet.
+     */
+    public long getEta() {
+        if(completed) return 0;
+        if(totalItems < 0 || processedItems == 0) return -1;
+
+        long remainingItems = Math.max(0, totalItems - processedItems);
+
+        return (long) Math.ceil((double) remainingItems * slices / processedItems);
+    }
+
+    /**
+     * Continues processing of items. Does nothing if all items were already processed.
+     */
+    @Override
+    public void start() {
+        if(completed) return;
+
+        super.start();
+    }
+
+    @Override
+    public void execute() {
+        super.execute();
+
+        if(completed || iterator.hasNext()) return;
+
+        completed = true;
+        stop(true);
+
+        if(completionAction != null)
+            completionAction.run();
+    }
+
+    private static void process(BetterTask task) {
+        ((BetterSlicedRunnable<?>) task).processSlice();
+    }
+
+    /**
+     * Processes items until the item limit or the time budget is reached.
+     */
+    private void processSlice() {
+        long budget = timeBudgetNanos;
+        long start = scheduler.nanoTime();
+        int processed = 0;
+
+        while(iterator.hasNext()) {
+            action.accept(iterator.next());
+            processed++;
+
+            // Item can pause or stop the task, next items wait for unpause or start
+            if(isStopped || (pauseType == PauseType.AUTOMATIC && isAnyPaused())) break;
+            if(itemsPerTick > 0 && processed >= itemsPerTick) break;
+            if(budget > 0 && scheduler.nanoTime() - start >= budget) break;
+        }
+
+        processedItems += processed;
+        processingTime += scheduler.nanoTime() - start;
+        slices++;
+    }
+
+}
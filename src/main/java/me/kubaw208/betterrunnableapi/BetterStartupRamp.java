@@ -0,0 +1,128 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Startup ramp of a plugin. While the ramp is active, first runs of newly started tasks of the plugin are admitted gradually,
+ * at most given number of tasks per tick, so thousands of tasks created in onEnable don't all run in the first ticks after startup.
+ * A task whose first run falls on a full tick is moved to the next tick with a free slot. Later runs of repeating tasks keep their interval.
+ * <br><br>
+ * The ramp ends once its window passes, tasks started afterwards are not affected.
+ * CRITICAL tasks and tasks added to CRITICAL groups are exempt, other tasks can be exempted with {@link #exempt(BetterTask)}.
+ * Precise asynchronous tasks are not timed by ticks and are never ramped.
+ */
+@Getter
+public final class BetterStartupRamp {
+
+    private static final Map<JavaPlugin, BetterStartupRamp> ramps = new ConcurrentHashMap<>();
+
+    private final JavaPlugin plugin;
+    @Getter(AccessLevel.NONE) private final TaskScheduler scheduler;
+    /**
+     * Number of ticks after enabling the ramp in which started tasks are ramped.
+     */
+    private final int window;
+    private final int tasksPerTick;
+    private final long startTick;
+    @Getter(AccessLevel.NONE) private int[] admissions;
+    /**
+     * Number of tasks that passed through the ramp.
+     */
+    private long admittedTasks = 0;
+    /**
+     * Number of tasks whose first run was moved by the ramp.
+     */
+    private long rampedTasks = 0;
+
+    private BetterStartupRamp(JavaPlugin plugin, int window, int tasksPerTick) {
+        this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
+        this.window = Math.max(1, window);
+        this.tasksPerTick = Math.max(1, tasksPerTick);
+        this.startTick = scheduler.getCurrentTick();
+        this.admissions = new int[this.window];
+    }
+
+    /**
+     * Enables startup ramp of the plugin. Should be called at the beginning of onEnable, before tasks are created.
+     * Replaces the previous ramp of the plugin.
+     * @param window number of ticks in which started tasks are ramped.
+     * @param tasksPerTick maximal number of first runs admitted in one tick.
+     */
+    public static BetterStartupRamp enable(JavaPlugin plugin, int window, int tasksPerTick) {
+        var ramp = new BetterStartupRamp(plugin, window, tasksPerTick);
+
+        ramps.put(plugin, ramp);
+        return ramp;
+    }
+
+    /**
+     * Returns active ramp of the plugin or null if the plugin has no ramp or its window already passed.
+     */
+    public static BetterStartupRamp get(JavaPlugin plugin) {
+        var ramp = ramps.isEmpty() ? null : ramps.get(plugin);
+
+        if(ramp == null || ramp.isActive()) return ramp;
+
+        ramps.remove(plugin, ramp);
+        return null;
+    }
+
+    /**
+     * Disables startup ramp of the plugin. Tasks that were already ramped keep their first run.
+     * @return true if the plugin had a ramp. Else returns false.
+     */
+    public static boolean disable(JavaPlugin plugin) {
+        return ramps.remove(plugin) != null;
+    }
+
+    /**
+     * Moves the first run of the task back to the tick in which it was requested, if it was moved by a ramp.
+     * Must be called from the thread that schedules the task.
+     */
+    public static void exempt(BetterTask task) {
+        task.exemptFromRamp();
+    }
+
+    /**
+     * Returns true if the window of the ramp didn't pass yet. Else returns false.
+     */
+    public boolean isActive() {
+        return scheduler.getCurrentTick() - startTick < window;
+    }
+
+    /**
+     * Returns delay that moves the first run of a task to the first tick with a free slot, starting from the requested tick.
+     * Ticks are counted from the start of the ramp. When the window is full, tasks overflow to ticks after the window at the same rate.
+     */
+    synchronized long admit(long delay) {
+        long requested = scheduler.getCurrentTick() - startTick + Math.max(1, delay);
+
+        if(requested >= window) return delay;
+
+        int slot = (int) requested;
+
+        while(slot < admissions.length && admissions[slot] >= tasksPerTick)
+            slot++;
+
+        if(slot == admissions.length)
+            admissions = Arrays.copyOf(admissions, admissions.length * 2);
+
+        admissions[slot]++;
+        admittedTasks++;
+
+        if(slot == requested) return delay;
+
+        rampedTasks++;
+        return Math.max(1, delay) + slot - requested;
+    }
+
+}
@@ -1,22 +1,56 @@
 package me.kubaw208.betterrunnableapi;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
 import me.kubaw208.betterrunnableapi.structs.PauseType;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Collections;
 import java.util.Set;
 import java.util.function.Consumer;
 
 @Getter
 public abstract class BetterTask {
 
+    static final long MILLIS_PER_TICK = 50;
+    /**
+     * Handle of a task that is not scheduled.
+     */
+    static final int NOT_SCHEDULED = 0;
+    /**
+     * Handle of a task scheduled in the dispatcher, which is tracked by its wheel entry.
+     */
+    static final int DISPATCHED = Integer.MIN_VALUE;
+
     boolean isHardPause = false;
     boolean isSoftPause = false;
+    @Getter(AccessLevel.NONE) int pausedGroups = 0;
+    TimingWheel.Entry wheelEntry;
+    @Getter(AccessLevel.NONE) volatile BetterTaskMetrics metrics;
+    @Getter(AccessLevel.NONE) volatile long plannedTick;
+    @Getter(AccessLevel.NONE) final Runnable executeAction = this::execute;
+    @Getter(AccessLevel.NONE) int rampTicks = 0;
+    @Getter(AccessLevel.NONE) volatile BetterTaskRegistry registry;
+    @Getter(AccessLevel.NONE) BetterTask previousRegistered;
+    @Getter(AccessLevel.NONE) BetterTask nextRegistered;
+    @Getter(AccessLevel.NONE) boolean registeredPaused;
+    @Getter(AccessLevel.NONE) private volatile GroupSet groups;
+    /**
+     * Priority set for the task or null if the task inherits priority of its groups.
+     */
+    TaskPriority priority = null;
 
     /**
-     * List of groups in which the task is added.
+     * Read-only view of groups in which the task is added. Tasks without groups share one empty set.
+     * Use {@link BetterRunnableGroup#addTask(BetterTask)} and {@link BetterRunnableGroup#removeTask(BetterTask)} to change groups of the task.
      */
-    public abstract Set<BetterRunnableGroup> getGroups();
+    public Set<BetterRunnableGroup> getGroups() {
+        var groups = this.groups;
+
+        return groups != null ? Collections.unmodifiableSet(groups) : Collections.emptySet();
+    }
 
     /**
      * Task to be executed.
@@ -28,14 +62,20 @@ public abstract class BetterTask {
      */
     public abstract JavaPlugin getPlugin();
 
+    /**
+     * Scheduler and clock used by the task. Chosen by {@link me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers} when the task is created.
+     */
+    public abstract TaskScheduler getScheduler();
+
     /**
      * Pause type of the task. Delayed tasks are always 'AUTOMATIC'.
      */
     public abstract PauseType getPauseType();
 
     /**
-     * For synchronous tasks, returns the ID of the task.
-     * For asynchronous tasks, returns 'ScheduledTask' object.
+     * For tasks timed by the scheduler, returns the ID of the task.
+     * For tasks driven by {@link BetterTaskDispatcher}, returns the dispatcher entry of the task.
+     * For precise asynchronous tasks, returns their 'ScheduledFuture'.
      * Can be null if a task is stopped.
      */
     public abstract Object getRunnableID();
@@ -62,6 +102,14 @@ public abstract class BetterTask {
      */
     public abstract long getExecutions();
 
+    /**
+     * Execution metrics of the task or null if metrics were never collected for the task.
+     * @see BetterTaskMetrics#setEnabled(boolean)
+     */
+    public BetterTaskMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Returns true if the task is stopped. Else returns false.
      */
@@ -104,6 +152,7 @@ public abstract class BetterTask {
      */
     public void pause() {
         pauseInternal(isHardPause, isSoftPause, true, isSoftPause);
+        updateRegistryState();
     }
 
     /**
@@ -112,24 +161,269 @@ public abstract class BetterTask {
      */
     public void unpause() {
         unpauseInternal(isHardPause, isSoftPause, false, isSoftPause);
+        updateRegistryState();
+    }
+
+    /**
+     * Sets priority of the task. Takes precedence over priorities of its groups.
+     * @param priority priority or null to inherit priority of groups.
+     * @see TaskPriority
+     */
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+
+        if(priority == TaskPriority.CRITICAL)
+            exemptFromRamp();
+    }
+
+    /**
+     * Priority used by the dispatcher. Priority of the task if set, else the highest priority of its groups, else NORMAL.
+     */
+    public TaskPriority getEffectivePriority() {
+        if(priority != null) return priority;
+
+        TaskPriority inherited = null;
+
+        for(var group : groupArray())
+            inherited = TaskPriority.highest(inherited, group.getEffectivePriority());
+
+        return inherited != null ? inherited : TaskPriority.NORMAL;
+    }
+
+    /**
+     * Hands action over to the main thread. Useful in asynchronous tasks to apply their results with Bukkit API.
+     * Actions are batched in {@link BetterMainThreadQueue} of the task's plugin and executed in one of the next ticks,
+     * in the order in which they were submitted. Can be called from any thread.
+     * @throws org.bukkit.plugin.IllegalPluginAccessException if the plugin is disabled.
+     */
+    public void runOnMainThread(Runnable action) {
+        BetterMainThreadQueue.of(getPlugin()).submit(action);
+    }
+
+    /**
+     * Remembers the tick in which the next execution is planned, so scheduling lag can be measured.
+     */
+    void planExecution(long delay) {
+        plannedTick = getScheduler().getCurrentTick() + Math.max(1, delay);
+    }
+
+    /**
+     * Returns start time of an execution for {@link #finishMeasuring(long)} or 0 if metrics are disabled.
+     */
+    long startMeasuring() {
+        return BetterTaskMetrics.isEnabled() ? getScheduler().nanoTime() : 0;
+    }
+
+    /**
+     * Records execution that started at given time.
+     */
+    void finishMeasuring(long startNanos) {
+        if(startNanos == 0) return;
+
+        var scheduler = getScheduler();
+
+        metrics().recordExecution(scheduler.nanoTime() - startNanos, scheduler.getCurrentTick() - plannedTick);
     }
 
+    /**
+     * Returns metrics of the task. Creates them if the task has no metrics yet.
+     */
+    BetterTaskMetrics metrics() {
+        var metrics = this.metrics;
+
+        if(metrics != null) return metrics;
+
+        synchronized(this) {
+            if(this.metrics == null)
+                this.metrics = new BetterTaskMetrics();
+
+            return this.metrics;
+        }
+    }
+
+    /**
+     * Adds the started task to the registry of its plugin. Does nothing if the task is already registered.
+     */
+    void register() {
+        if(registry == null)
+            BetterTaskRegistry.of(getPlugin()).add(this);
+    }
+
+    /**
+     * Removes the stopped task from the registry of its plugin.
+     */
+    void unregister() {
+        var registry = this.registry;
+
+        if(registry != null)
+            registry.remove(this);
+    }
+
+    /**
+     * Moves the task between running and paused tasks of its registry after a pause transition.
+     */
+    void updateRegistryState() {
+        var registry = this.registry;
+
+        if(registry != null)
+            registry.updateState(this);
+    }
+
+    /**
+     * Returns delay of the first run of the task moved by the startup ramp of its plugin. CRITICAL tasks are never moved.
+     * @see BetterStartupRamp
+     */
+    long rampDelay(long delay) {
+        rampTicks = 0;
+
+        var ramp = BetterStartupRamp.get(getPlugin());
+
+        if(ramp == null || priority == TaskPriority.CRITICAL) return delay;
+
+        long admittedDelay = ramp.admit(delay);
+
+        // Unmoved delays are returned as requested, so a delay of 0 must not count as moved by -1 tick
+        rampTicks = admittedDelay == delay ? 0 : (int) Math.max(0, admittedDelay - Math.max(1, delay));
+        return admittedDelay;
+    }
+
+    /**
+     * Moves the first run of the task held back by the startup ramp back to the tick in which it was requested.
+     */
+    void exemptFromRamp() {
+        if(rampTicks == 0 || isStopped()) return;
+
+        long requestedTick = plannedTick - rampTicks;
+
+        rampTicks = 0;
+
+        if(getExecutions() > 0 || !cancelRunnable()) return;
+
+        schedule(Math.max(0, requestedTick - getScheduler().getCurrentTick()));
+    }
+
+    /**
+     * Schedules the next run of the task after given delay without touching start and pause bookkeeping.
+     */
+    abstract void schedule(long delay);
+
+    /**
+     * Cancels scheduled runs of the task.
+     * @return true if the task was scheduled. Else returns false.
+     */
+    abstract boolean cancelRunnable();
+
     abstract void pauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause);
 
     abstract void unpauseInternal(boolean wasHardPause, boolean wasSoftPause, boolean willHardPause, boolean willSoftPause);
 
     /**
-     * Updates isHardPause and isSoftPause.
+     * Returns groups of the task as an array. Doesn't allocate.
      */
-    void updatePauseState() {
-        for(var group : getGroups()) {
-            if(group.isHardPause() || group.isSoftPause()) {
-                pauseInternal(isHardPause, isSoftPause, isHardPause, true);
-                return;
-            }
+    BetterRunnableGroup[] groupArray() {
+        var groups = this.groups;
+
+        return groups != null ? groups.array() : GroupSet.EMPTY;
+    }
+
+    /**
+     * Forgets the group without removing the task from it. Doesn't create set of groups.
+     */
+    void removeGroup(BetterRunnableGroup group) {
+        var groups = this.groups;
+
+        if(groups != null)
+            groups.remove(group);
+    }
+
+    /**
+     * Forgets all groups without removing the task from them. Doesn't create set of groups.
+     */
+    void clearGroups() {
+        var groups = this.groups;
+
+        if(groups != null)
+            groups.clear();
+    }
+
+    /**
+     * Returns set of groups of the task. Creates it when the task joins its first group.
+     */
+    GroupSet groups() {
+        var groups = this.groups;
+
+        if(groups != null) return groups;
+
+        synchronized(this) {
+            if(this.groups == null)
+                this.groups = new GroupSet();
+
+            return this.groups;
         }
+    }
+
+    /**
+     * Removes the task from all its groups.
+     */
+    void leaveGroups() {
+        for(var group : groupArray())
+            group.removeTask(this);
+    }
+
+    /**
+     * Returns public representation of a scheduled run handle for {@link #getRunnableID()}.
+     */
+    Object runnableID(int taskID) {
+        if(taskID == NOT_SCHEDULED) return null;
+
+        return taskID == DISPATCHED ? wheelEntry : Integer.valueOf(taskID);
+    }
+
+    /**
+     * Cancels scheduled run identified by given handle.
+     */
+    void cancelScheduled(int taskID) {
+        if(taskID == DISPATCHED)
+            BetterTaskDispatcher.cancel(wheelEntry);
+        else
+            getScheduler().cancelTask(taskID);
+    }
+
+    /**
+     * Recounts paused groups of the task and updates isSoftPause. Complexity is O(number of groups of the task).
+     */
+    void updatePauseState() {
+        recountPausedGroups();
+        applyGroupPause();
+    }
+
+    /**
+     * Recounts paused groups of the task without applying the result.
+     */
+    void recountPausedGroups() {
+        int count = 0;
+
+        for(var group : groupArray())
+            if(group.isHardPause() || group.isSoftPause())
+                count++;
+
+        pausedGroups = count;
+    }
+
+    /**
+     * Soft pauses the task if at least one of its groups is paused. Else removes soft pause.
+     */
+    void applyGroupPause() {
+        boolean willSoftPause = pausedGroups > 0;
+
+        if(willSoftPause == isSoftPause) return;
+
+        if(willSoftPause)
+            pauseInternal(isHardPause, isSoftPause, isHardPause, true);
+        else
+            unpauseInternal(isHardPause, isSoftPause, isHardPause, false);
 
-        unpauseInternal(isHardPause, isSoftPause, isHardPause, false);
+        updateRegistryState();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,328 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.scheduler.TaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Opt-in dispatch engine for synchronous tasks.
+ * When enabled for a plugin, the library registers exactly one repeating Bukkit task for that plugin
+ * and drives all synchronous tasks of the plugin started afterwards from its own timing wheel.
+ * Scheduling, cancelling, pausing and unpausing a dispatched task is O(1) and does not touch the Bukkit scheduler.
+ * <br><br>
+ * Under tick pressure, due tasks are executed in order of their {@link TaskPriority}, so low priority tasks are the first to be deferred or shed.
+ * <br><br>
+ * Asynchronous tasks are never dispatched and keep using the Bukkit scheduler.
+ * Dispatcher must be used from the main thread.
+ */
+@Getter
+public final class BetterTaskDispatcher {
+
+    private static final Map<JavaPlugin, BetterTaskDispatcher> dispatchers = new HashMap<>();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final JavaPlugin plugin;
+    private final TaskScheduler scheduler;
+    @Getter(AccessLevel.NONE) private final TimingWheel wheel = new TimingWheel();
+    private final int driverTaskID;
+    @Getter(AccessLevel.NONE) private long tickBudgetNanos = 0;
+    private long deferredExecutions = 0;
+    private long totalDeferredTicks = 0;
+    private long maxDeferredTicks = 0;
+    @Getter(AccessLevel.NONE) private double shedAboveMspt = 0;
+    @Getter(AccessLevel.NONE) private final long[] deferredPerPriority = new long[PRIORITIES.length];
+    @Getter(AccessLevel.NONE) private final long[] shedPerPriority = new long[PRIORITIES.length];
+    @Getter(AccessLevel.NONE) private final ArrayDeque<TimingWheel.Entry>[] duePerPriority = newQueues();
+    @Getter(AccessLevel.NONE) private long tickStart;
+    @Getter(AccessLevel.NONE) private int serverTick;
+    @Getter(AccessLevel.NONE) private boolean executedAny;
+
+    private BetterTaskDispatcher(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.scheduler = TaskSchedulers.get(plugin);
+        this.driverTaskID = scheduler.scheduleSyncRepeatingTask(plugin, this::tick, 1, 1);
+    }
+
+    /**
+     * Enables the dispatcher for given plugin. Synchronous tasks started after this call are driven by the dispatcher.
+     * Tasks that are already running keep their Bukkit tasks.
+     * @return dispatcher of the plugin. If the dispatcher is already enabled, returns the existing one.
+     */
+    public static BetterTaskDispatcher enable(JavaPlugin plugin) {
+        var dispatcher = get(plugin);
+
+        if(dispatcher != null) return dispatcher;
+
+        dispatcher = new BetterTaskDispatcher(plugin);
+        dispatchers.put(plugin, dispatcher);
+        return dispatcher;
+    }
+
+    /**
+     * Disables the dispatcher for given plugin. Tasks driven by the dispatcher are handed over to the Bukkit scheduler
+     * with their remaining delay, so they keep running without interruption.
+     * @return true if the dispatcher was enabled. Else returns false.
+     */
+    public static boolean disable(JavaPlugin plugin) {
+        var dispatcher = dispatchers.remove(plugin);
+
+        if(dispatcher == null) return false;
+
+        dispatcher.scheduler.cancelTask(dispatcher.driverTaskID);
+        dispatcher.wheel.drain(entry -> {
+            if(!entry.active) return;
+
+            entry.active = false;
+            entry.task.schedule(Math.max(0, entry.deadline - dispatcher.wheel.getCurrentTick()));
+        });
+        return true;
+    }
+
+    /**
+     * Returns enabled dispatcher of the plugin or null if the plugin does not use the dispatcher.
+     */
+    public static BetterTaskDispatcher get(JavaPlugin plugin) {
+        if(dispatchers.isEmpty()) return null;
+
+        var dispatcher = dispatchers.get(plugin);
+
+        if(dispatcher == null) return null;
+
+        // Bukkit cancels the driver when plugin gets disabled, so the dispatcher is useless from that moment
+        if(!plugin.isEnabled()) {
+            dispatchers.remove(plugin);
+            return null;
+        }
+
+        return dispatcher;
+    }
+
+    /**
+     * Number of ticks processed by the dispatcher since it was enabled.
+     */
+    public long getCurrentTick() {
+        return wheel.getCurrentTick();
+    }
+
+    /**
+     * Number of tasks currently scheduled in the dispatcher.
+     */
+    public int getScheduledTasks() {
+        return wheel.size();
+    }
+
+    /**
+     * Time budget for executing dispatched tasks in one tick in milliseconds. 0 means no budget.
+     */
+    public double getTickBudget() {
+        return tickBudgetNanos / 1_000_000D;
+    }
+
+    /**
+     * Sets time budget for executing dispatched tasks in one tick.
+     * Once the budget is exceeded, remaining due tasks are deferred to the next tick, where they are executed first.
+     * At least one task is executed in every tick, so tasks can't be deferred forever.
+     * @param millis budget in milliseconds. 0 or less disables the budget.
+     * @see BetterRunnableGroup#setTickBudget(double)
+     */
+    public BetterTaskDispatcher setTickBudget(double millis) {
+        tickBudgetNanos = millis > 0 ? (long) (millis * 1_000_000D) : 0;
+        return this;
+    }
+
+    /**
+     * MSPT above which repeating LOW priority tasks are shed. 0 means tasks are shed only when a tick budget is exceeded.
+     */
+    public double getShedAboveMspt() {
+        return shedAboveMspt;
+    }
+
+    /**
+     * Sets MSPT of the server above which executions of repeating LOW priority tasks are skipped until their next interval.
+     * @param mspt average tick time in milliseconds. 0 or less disables shedding based on MSPT.
+     * @see TaskPriority
+     */
+    public BetterTaskDispatcher setShedAboveMspt(double mspt) {
+        shedAboveMspt = Math.max(0, mspt);
+        return this;
+    }
+
+    /**
+     * Number of executions of tasks with given priority that were deferred to the next tick.
+     */
+    public long getDeferredExecutions(TaskPriority priority) {
+        return deferredPerPriority[priority.ordinal()];
+    }
+
+    /**
+     * Number of executions of tasks with given priority that were shed.
+     */
+    public long getShedExecutions(TaskPriority priority) {
+        return shedPerPriority[priority.ordinal()];
+    }
+
+    /**
+     * Schedules the task in the timing wheel. Entry of the task is reused between schedules.
+     * @param interval time in ticks between runs or 0 if the task should be executed only once.
+     * @return entry of the task that serves as its runnable ID.
+     */
+    TimingWheel.Entry schedule(BetterTask task, long delay, long interval) {
+        var entry = task.wheelEntry;
+
+        if(entry == null || entry.wheel != wheel)
+            task.wheelEntry = entry = new TimingWheel.Entry(wheel, task);
+
+        entry.interval = interval;
+        entry.active = true;
+        wheel.schedule(entry, delay);
+        return entry;
+    }
+
+    /**
+     * Cancels the entry of a task scheduled by any dispatcher.
+     */
+    static void cancel(TimingWheel.Entry entry) {
+        entry.active = false;
+        entry.wheel.cancel(entry);
+    }
+
+    private void tick() {
+        wheel.advance();
+
+        boolean budgeted = tickBudgetNanos > 0 || BetterRunnableGroup.budgetedGroups > 0;
+        boolean overloaded = shedAboveMspt > 0 && scheduler.getAverageTickTime() >= shedAboveMspt;
+        TimingWheel.Entry entry;
+
+        tickStart = budgeted ? scheduler.nanoTime() : 0;
+        serverTick = budgeted ? scheduler.getCurrentTick() : 0;
+        executedAny = false;
+
+        if(!budgeted && !overloaded) {
+            while((entry = wheel.pollDue()) != null)
+                execute(entry, false);
+
+            wheel.finishTick();
+            return;
+        }
+
+        // Under pressure, due tasks are executed from the highest priority, so low priority tasks are the first to be postponed
+        while((entry = wheel.pollDue()) != null)
+            duePerPriority[entry.task.getEffectivePriority().ordinal()].add(entry);
+
+        for(int ordinal = 0; ordinal < duePerPriority.length; ordinal++) {
+            var priority = PRIORITIES[ordinal];
+
+            while((entry = duePerPriority[ordinal].poll()) != null) {
+                // Task could have been stopped or restarted by a task executed before it in this tick
+                if(!entry.active || entry.isLinked()) continue;
+
+                if(priority != TaskPriority.CRITICAL && postpone(entry, priority, budgeted, overloaded)) continue;
+
+                execute(entry, budgeted);
+            }
+        }
+
+        wheel.finishTick();
+    }
+
+    /**
+     * Defers or sheds the entry if the tick is under pressure.
+     * @return true if the entry was postponed. Else returns false and the entry should be executed.
+     */
+    private boolean postpone(TimingWheel.Entry entry, TaskPriority priority, boolean budgeted, boolean overloaded) {
+        boolean overTickBudget = budgeted && isTickBudgetExceeded();
+        var overBudgetGroup = budgeted && !overTickBudget ? exceededGroup(entry) : null;
+        boolean overBudget = overTickBudget || overBudgetGroup != null;
+
+        if(priority == TaskPriority.LOW && entry.interval > 0 && (overloaded || overBudget)) {
+            shedPerPriority[priority.ordinal()]++;
+
+            if(BetterTaskMetrics.isEnabled())
+                entry.task.metrics().recordSkipped();
+
+            entry.task.planExecution(entry.interval);
+            wheel.schedule(entry, entry.interval);
+            return true;
+        }
+
+        if(!overBudget) return false;
+
+        wheel.defer(entry);
+        deferredExecutions++;
+        deferredPerPriority[priority.ordinal()]++;
+
+        if(overBudgetGroup != null)
+            overBudgetGroup.deferredExecutions++;
+
+        if(BetterTaskMetrics.isEnabled())
+            entry.task.metrics().recordDeferred();
+        return true;
+    }
+
+    private void execute(TimingWheel.Entry entry, boolean budgeted) {
+        long lateTicks = wheel.getCurrentTick() - entry.deadline;
+
+        if(lateTicks > 0) {
+            totalDeferredTicks += lateTicks;
+            maxDeferredTicks = Math.max(maxDeferredTicks, lateTicks);
+        }
+
+        long executionStart = budgeted ? scheduler.nanoTime() : 0;
+
+        try {
+            entry.task.execute();
+        } catch(Throwable throwable) {
+            plugin.getLogger().log(Level.WARNING, "Dispatched task generated an exception", throwable);
+        }
+
+        executedAny = true;
+
+        if(budgeted && BetterRunnableGroup.budgetedGroups > 0)
+            for(var group : entry.task.groupArray())
+                group.useTickBudget(scheduler.nanoTime() - executionStart, serverTick);
+
+        // Task could have been stopped, paused or restarted during its execution
+        if(!entry.active || entry.isLinked()) return;
+
+        if(entry.interval > 0)
+            wheel.schedule(entry, entry.interval);
+        else
+            entry.active = false;
+    }
+
+    private boolean isTickBudgetExceeded() {
+        return tickBudgetNanos > 0 && executedAny && scheduler.nanoTime() - tickStart >= tickBudgetNanos;
+    }
+
+    /**
+     * Returns the first group of the entry's task that exceeded its tick budget or null if no group did.
+     */
+    private BetterRunnableGroup exceededGroup(TimingWheel.Entry entry) {
+        if(BetterRunnableGroup.budgetedGroups == 0) return null;
+
+        for(var group : entry.task.groupArray())
+            if(group.isTickBudgetExceeded(serverTick))
+                return group;
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<TimingWheel.Entry>[] newQueues() {
+        var queues = new ArrayDeque[PRIORITIES.length];
+
+        for(int i = 0; i < queues.length; i++)
+            queues[i] = new ArrayDeque<TimingWheel.Entry>();
+
+        return queues;
+    }
+
+}
@@ -0,0 +1,209 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.Getter;
+import me.kubaw208.betterrunnableapi.structs.LatencyHistogram;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a task or aggregated metrics of a group.
+ * Metrics are collected only when enabled by {@link #setEnabled(boolean)}. Recording is lock-free and can happen on any thread.
+ * <br><br>
+ * Scheduling lag is a number of ticks between the tick in which the execution was planned and the tick in which it actually happened.
+ *
+ * @see BetterTask#getMetrics()
+ * @see BetterRunnableGroup#getMetrics()
+ */
+public final class BetterTaskMetrics {
+
+    private static volatile boolean enabled = false;
+
+    @Getter private final LatencyHistogram executionTimes = new LatencyHistogram();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final LongAdder lateExecutions = new LongAdder();
+    private final LongAdder totalLag = new LongAdder();
+    private final AtomicLong maxLag = new AtomicLong();
+    private final LongAdder skippedExecutions = new LongAdder();
+    private final LongAdder deferredExecutions = new LongAdder();
+
+    BetterTaskMetrics() {}
+
+    /**
+     * Returns true if metrics are collected. Else returns false.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables collecting metrics of all tasks. Collecting costs two {@link System#nanoTime()} calls and a few atomic increments per execution.
+     */
+    public static void setEnabled(boolean enabled) {
+        BetterTaskMetrics.enabled = enabled;
+    }
+
+    /**
+     * Returns live tasks of the plugin with the highest total execution time, for example to build a '/tasks top' command.
+     * @param plugin plugin whose tasks are returned or null for tasks of all plugins.
+     * @param limit maximal number of returned tasks.
+     */
+    public static List<BetterTask> top(JavaPlugin plugin, int limit) {
+        return top(plugin, limit, Comparator.comparingLong(task -> task.getMetrics().getTotalTime()));
+    }
+
+    /**
+     * Returns live tasks of the plugin with the highest value of given metric. Only tasks with metrics are returned.
+     * @see BetterTaskRegistry
+     * @param plugin plugin whose tasks are returned or null for tasks of all plugins.
+     * @param limit maximal number of returned tasks.
+     * @param comparator comparator of tasks, highest tasks are returned first.
+     */
+    public static List<BetterTask> top(JavaPlugin plugin, int limit, Comparator<BetterTask> comparator) {
+        var tasks = new ArrayList<BetterTask>();
+
+        if(plugin != null) {
+            var registry = BetterTaskRegistry.get(plugin);
+
+            if(registry != null)
+                tasks.addAll(registry.getTasks(task -> task.metrics != null));
+        } else {
+            for(var registry : BetterTaskRegistry.getAll())
+                tasks.addAll(registry.getTasks(task -> task.metrics != null));
+        }
+
+        tasks.sort(comparator.reversed());
+        return tasks.size() > limit ? new ArrayList<>(tasks.subList(0, limit)) : tasks;
+    }
+
+    /**
+     * Number of measured executions.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Total execution time in nanoseconds.
+     */
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * Mean execution time in nanoseconds.
+     */
+    public long getMeanTime() {
+        long count = executions.sum();
+
+        return count == 0 ? 0 : totalTime.sum() / count;
+    }
+
+    /**
+     * Longest execution time in nanoseconds.
+     */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    /**
+     * Execution time in nanoseconds that is greater than or equal to given percentage of execution times.
+     * @param percentile percentile from 0 to 100.
+     */
+    public long getTimeAtPercentile(double percentile) {
+        return executionTimes.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Number of executions that happened later than planned.
+     */
+    public long getLateExecutions() {
+        return lateExecutions.sum();
+    }
+
+    /**
+     * Sum of scheduling lag of all executions in ticks.
+     */
+    public long getTotalLag() {
+        return totalLag.sum();
+    }
+
+    /**
+     * Highest scheduling lag in ticks.
+     */
+    public long getMaxLag() {
+        return maxLag.get();
+    }
+
+    /**
+     * Number of executions that were skipped.
+     */
+    public long getSkippedExecutions() {
+        return skippedExecutions.sum();
+    }
+
+    /**
+     * Number of times an execution was deferred to the next tick.
+     */
+    public long getDeferredExecutions() {
+        return deferredExecutions.sum();
+    }
+
+    /**
+     * Removes all collected metrics.
+     */
+    public void reset() {
+        executionTimes.reset();
+        executions.reset();
+        totalTime.reset();
+        maxTime.set(0);
+        lateExecutions.reset();
+        totalLag.reset();
+        maxLag.set(0);
+        skippedExecutions.reset();
+        deferredExecutions.reset();
+    }
+
+    void recordExecution(long nanos, long lag) {
+        executionTimes.record(nanos);
+        executions.increment();
+        totalTime.add(nanos);
+        maxTime.accumulateAndGet(nanos, Math::max);
+
+        if(lag <= 0) return;
+
+        lateExecutions.increment();
+        totalLag.add(lag);
+        maxLag.accumulateAndGet(lag, Math::max);
+    }
+
+    void recordSkipped() {
+        skippedExecutions.increment();
+    }
+
+    void recordDeferred() {
+        deferredExecutions.increment();
+    }
+
+    /**
+     * Adds metrics of other task or group to this metrics.
+     */
+    void add(BetterTaskMetrics other) {
+        executionTimes.add(other.executionTimes);
+        executions.add(other.executions.sum());
+        totalTime.add(other.totalTime.sum());
+        maxTime.accumulateAndGet(other.maxTime.get(), Math::max);
+        lateExecutions.add(other.lateExecutions.sum());
+        totalLag.add(other.totalLag.sum());
+        maxLag.accumulateAndGet(other.maxLag.get(), Math::max);
+        skippedExecutions.add(other.skippedExecutions.sum());
+        deferredExecutions.add(other.deferredExecutions.sum());
+    }
+
+}
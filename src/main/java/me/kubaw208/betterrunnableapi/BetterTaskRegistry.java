@@ -0,0 +1,372 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Registry of live tasks of a plugin, maintained by the library.
+ * Task is registered when it is started and unregistered when it is stopped, so paused tasks stay in the registry.
+ * Tasks are kept in buckets by their class, each bucket has separate lists of running and paused tasks.
+ * Tasks are linked directly into the lists, so registering, unregistering and moving a task between the lists on pause and unpause is O(1) and doesn't allocate.
+ * Queries by type or state only visit tasks that match.
+ * <br><br>
+ * Registry can be used from any thread. Queries return snapshots. Tasks of a group can be found with {@link BetterRunnableGroup#getTasks()}.
+ */
+@Getter
+public final class BetterTaskRegistry {
+
+    private static final Map<JavaPlugin, BetterTaskRegistry> registries = new ConcurrentHashMap<>();
+
+    private final JavaPlugin plugin;
+    @Getter(AccessLevel.NONE) private final Map<Class<?>, Bucket> buckets = new HashMap<>();
+    @Getter(AccessLevel.NONE) private int size = 0;
+    @Getter(AccessLevel.NONE) private int pausedTasks = 0;
+    @Getter(AccessLevel.NONE) private int asyncTasks = 0;
+
+    private BetterTaskRegistry(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Returns registry of the plugin. Creates it if it doesn't exist yet.
+     */
+    public static BetterTaskRegistry of(JavaPlugin plugin) {
+        return registries.computeIfAbsent(plugin, BetterTaskRegistry::new);
+    }
+
+    /**
+     * Returns registry of the plugin or null if the plugin never started a task.
+     */
+    public static BetterTaskRegistry get(JavaPlugin plugin) {
+        return registries.get(plugin);
+    }
+
+    /**
+     * Returns registries of all plugins that started a task.
+     */
+    public static Collection<BetterTaskRegistry> getAll() {
+        return List.copyOf(registries.values());
+    }
+
+    /**
+     * Stops all live tasks of the plugin in one pass, for example when the plugin is being disabled.
+     * Tasks are removed from their groups in bulk, so stopping doesn't update pause state of tasks that are being stopped.
+     * Should be called from the main thread.
+     * @return number of stopped tasks.
+     */
+    public static int stopAll(JavaPlugin plugin) {
+        var registry = registries.get(plugin);
+
+        if(registry == null) return 0;
+
+        var tasks = registry.clear();
+
+        for(var task : tasks) {
+            for(var group : task.groupArray())
+                group.getTasks().remove(task);
+
+            task.clearGroups();
+            task.pausedGroups = 0;
+            task.isSoftPause = false;
+            task.stop(false);
+        }
+
+        return tasks.size();
+    }
+
+    /**
+     * Number of live tasks.
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Number of live tasks of given type. Subclasses of the type are included.
+     */
+    public synchronized int getSize(Class<? extends BetterTask> type) {
+        int size = 0;
+
+        for(var bucket : buckets.values())
+            if(type.isAssignableFrom(bucket.type))
+                size += bucket.runningSize + bucket.pausedSize;
+
+        return size;
+    }
+
+    /**
+     * Number of live tasks that are not paused.
+     */
+    public synchronized int getRunningSize() {
+        return size - pausedTasks;
+    }
+
+    /**
+     * Number of live tasks that are paused.
+     */
+    public synchronized int getPausedSize() {
+        return pausedTasks;
+    }
+
+    /**
+     * Number of live asynchronous tasks.
+     */
+    public synchronized int getAsyncSize() {
+        return asyncTasks;
+    }
+
+    /**
+     * Returns true if the task is live and registered in this registry. Else returns false.
+     */
+    public boolean contains(BetterTask task) {
+        return task.registry == this;
+    }
+
+    /**
+     * Returns all live tasks.
+     */
+    public List<BetterTask> getTasks() {
+        return getTasks(BetterTask.class, true, true);
+    }
+
+    /**
+     * Returns live tasks of given type, for example {@code BetterDelayedRunnable.class}. Subclasses of the type are included.
+     */
+    public <T extends BetterTask> List<T> getTasks(Class<T> type) {
+        return getTasks(type, true, true);
+    }
+
+    /**
+     * Returns live tasks that match given filter. Filter is called while the registry is locked, so it should be short.
+     */
+    public synchronized List<BetterTask> getTasks(Predicate<BetterTask> filter) {
+        var tasks = new ArrayList<BetterTask>(filter == null ? size : 16);
+
+        for(var bucket : buckets.values()) {
+            collect(bucket.running, filter, tasks);
+            collect(bucket.paused, filter, tasks);
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Returns live tasks that are not paused.
+     */
+    public List<BetterTask> getRunningTasks() {
+        return getTasks(BetterTask.class, true, false);
+    }
+
+    /**
+     * Returns live tasks of given type that are not paused. Subclasses of the type are included.
+     */
+    public <T extends BetterTask> List<T> getRunningTasks(Class<T> type) {
+        return getTasks(type, true, false);
+    }
+
+    /**
+     * Returns live tasks that are paused.
+     */
+    public List<BetterTask> getPausedTasks() {
+        return getTasks(BetterTask.class, false, true);
+    }
+
+    /**
+     * Returns live tasks of given type that are paused. Subclasses of the type are included.
+     */
+    public <T extends BetterTask> List<T> getPausedTasks(Class<T> type) {
+        return getTasks(type, false, true);
+    }
+
+    /**
+     * Returns live asynchronous tasks.
+     */
+    public List<BetterTask> getAsyncTasks() {
+        return getTasks(BetterTask::isAsync);
+    }
+
+    synchronized void add(BetterTask task) {
+        if(task.registry != null) return;
+
+        var bucket = buckets.get(task.getClass());
+
+        if(bucket == null) {
+            bucket = new Bucket(task.getClass());
+            buckets.put(task.getClass(), bucket);
+        }
+
+        task.registry = this;
+        task.registeredPaused = task.isAnyPaused();
+        bucket.link(task);
+        size++;
+
+        if(task.registeredPaused)
+            pausedTasks++;
+
+        if(task.isAsync())
+            asyncTasks++;
+    }
+
+    synchronized void remove(BetterTask task) {
+        if(task.registry != this) return;
+
+        buckets.get(task.getClass()).unlink(task);
+        task.registry = null;
+        size--;
+
+        if(task.registeredPaused)
+            pausedTasks--;
+
+        if(task.isAsync())
+            asyncTasks--;
+    }
+
+    /**
+     * Moves the task between the running and paused lists if its pause state changed since it was last linked.
+     */
+    synchronized void updateState(BetterTask task) {
+        if(task.registry != this || task.isAnyPaused() == task.registeredPaused) return;
+
+        var bucket = buckets.get(task.getClass());
+
+        bucket.unlink(task);
+        task.registeredPaused = !task.registeredPaused;
+        bucket.link(task);
+        pausedTasks += task.registeredPaused ? 1 : -1;
+    }
+
+    private synchronized <T extends BetterTask> List<T> getTasks(Class<T> type, boolean running, boolean paused) {
+        int capacity = 0;
+
+        for(var bucket : buckets.values())
+            if(type.isAssignableFrom(bucket.type))
+                capacity += (running ? bucket.runningSize : 0) + (paused ? bucket.pausedSize : 0);
+
+        var tasks = new ArrayList<T>(capacity);
+
+        for(var bucket : buckets.values()) {
+            if(!type.isAssignableFrom(bucket.type)) continue;
+
+            if(running)
+                for(var task = bucket.running; task != null; task = task.nextRegistered)
+                    tasks.add(type.cast(task));
+
+            if(paused)
+                for(var task = bucket.paused; task != null; task = task.nextRegistered)
+                    tasks.add(type.cast(task));
+        }
+
+        return tasks;
+    }
+
+    private static void collect(BetterTask head, Predicate<BetterTask> filter, List<BetterTask> tasks) {
+        for(var task = head; task != null; task = task.nextRegistered)
+            if(filter == null || filter.test(task))
+                tasks.add(task);
+    }
+
+    /**
+     * Unregisters all tasks and returns them.
+     */
+    private synchronized List<BetterTask> clear() {
+        var tasks = getTasks();
+
+        for(var task : tasks)
+            task.registry = null;
+
+        for(var bucket : buckets.values())
+            bucket.clear();
+
+        size = 0;
+        pausedTasks = 0;
+        asyncTasks = 0;
+        return tasks;
+    }
+
+    /**
+     * Live tasks of one class, split into running and paused tasks.
+     */
+    private static final class Bucket {
+
+        private final Class<?> type;
+        private BetterTask running;
+        private BetterTask paused;
+        private int runningSize = 0;
+        private int pausedSize = 0;
+
+        private Bucket(Class<?> type) {
+            this.type = type;
+        }
+
+        /**
+         * Links the task at the head of the list of its registered state.
+         */
+        private void link(BetterTask task) {
+            var head = task.registeredPaused ? paused : running;
+
+            task.previousRegistered = null;
+            task.nextRegistered = head;
+
+            if(head != null)
+                head.previousRegistered = task;
+
+            if(task.registeredPaused) {
+                paused = task;
+                pausedSize++;
+            } else {
+                running = task;
+                runningSize++;
+            }
+        }
+
+        private void unlink(BetterTask task) {
+            if(task.previousRegistered != null)
+                task.previousRegistered.nextRegistered = task.nextRegistered;
+            else if(task.registeredPaused)
+                paused = task.nextRegistered;
+            else
+                running = task.nextRegistered;
+
+            if(task.nextRegistered != null)
+                task.nextRegistered.previousRegistered = task.previousRegistered;
+
+            task.previousRegistered = null;
+            task.nextRegistered = null;
+
+            if(task.registeredPaused)
+                pausedSize--;
+            else
+                runningSize--;
+        }
+
+        private void clear() {
+            unlinkAll(running);
+            unlinkAll(paused);
+            running = null;
+            paused = null;
+            runningSize = 0;
+            pausedSize = 0;
+        }
+
+        private static void unlinkAll(BetterTask head) {
+            for(var task = head; task != null; ) {
+                var next = task.nextRegistered;
+
+                task.previousRegistered = null;
+                task.nextRegistered = null;
+                task = next;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package me.kubaw208.betterrunnableapi;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keyed throttle. Action for a key is executed at most once per window.
+ * The first trigger of a key executes the action immediately and opens a window. Triggers during the window are coalesced
+ * into a single execution at the end of the window, which opens the next window. Window closes once it passes without triggers.
+ * Each open window uses one timer that is restarted for the next window, and timers are taken from a {@link BetterDelayedTaskPool}.
+ * <br><br>
+ * Throttler must be used from the main thread. Actions are executed on the main thread.
+ *
+ * @param <K> type of keys, for example player UUID.
+ */
+@Getter
+public final class BetterThrottler<K> {
+
+    private final JavaPlugin plugin;
+    private final long window;
+    @Getter(AccessLevel.NONE) private final Consumer<K> action;
+    @Getter(AccessLevel.NONE) private final BetterDelayedTaskPool timers;
+    @Getter(AccessLevel.NONE) private final Map<K, BetterDelayedTaskPool.Lease> windows = new HashMap<>();
+    @Getter(AccessLevel.NONE) private final Set<K> pending = new HashSet<>();
+    private long triggers = 0;
+    private long executions = 0;
+
+    /**
+     * Creates a new throttler.
+     * @param plugin plugin main class that runs timers.
+     * @param window minimal time in ticks between executions of the action for one key.
+     * @param action action executed for a key.
+     */
+    public BetterThrottler(JavaPlugin plugin, long window, Consumer<K> action) {
+        this.plugin = plugin;
+        this.window = Math.max(1, window);
+        this.action = action;
+        this.timers = new BetterDelayedTaskPool(plugin, 256);
+    }
+
+    /**
+     * Triggers the key. Action is executed immediately if the key has no open window, else at the end of the window.
+     */
+    public void trigger(K key) {
+        triggers++;
+
+        var timer = windows.get(key);
+
+        if(timer != null && timer.isOwned()) {
+            pending.add(key);
+            return;
+        }
+
+        // Timer stopped from outside is dropped, because it can already serve another key
+        pending.remove(key);
+        windows.put(key, new BetterDelayedTaskPool.Lease(timers.schedule(task -> closeWindow(key, (BetterDelayedRunnable) task), window)));
+        execute(key);
+    }
+
+    /**
+     * Returns true if the key has an open window. Else returns false.
+     */
+    public boolean isThrottled(K key) {
+        var timer = windows.get(key);
+
+        return timer != null && timer.isOwned();
+    }
+
+    /**
+     * Number of keys with an open window.
+     */
+    public int getThrottledKeys() {
+        windows.entrySet().removeIf(entry -> {
+            if(entry.getValue().isOwned()) return false;
+
+            pending.remove(entry.getKey());
+            return true;
+        });
+
+        return windows.size();
+    }
+
+    /**
+     * Closes window of the key without executing its coalesced action.
+     * @return true if the key had an open window. Else returns false.
+     */
+    public boolean cancel(K key) {
+        var timer = windows.remove(key);
+
+        pending.remove(key);
+
+        if(timer == null || !timer.isOwned()) return false;
+
+        timer.task.stop();
+        return true;
+    }
+
+    private void closeWindow(K key, BetterDelayedRunnable timer) {
+        if(!pending.remove(key)) {
+            windows.remove(key);
+            return;
+        }
+
+        timer.restart(window);
+        execute(key);
+    }
+
+    private void execute(K key) {
+        executions++;
+        action.accept(key);
+    }
+
+}
@@ -0,0 +1,111 @@
+package me.kubaw208.betterrunnableapi;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free copy-on-write set of groups in which a task is added.
+ * Tasks are usually in a few groups and their groups are iterated much more often than changed,
+ * so every change replaces the backing array and iteration works on a snapshot that never needs locking.
+ */
+final class GroupSet extends AbstractSet<BetterRunnableGroup> {
+
+    static final BetterRunnableGroup[] EMPTY = new BetterRunnableGroup[0];
+    private static final AtomicReferenceFieldUpdater<GroupSet, BetterRunnableGroup[]> GROUPS =
+            AtomicReferenceFieldUpdater.newUpdater(GroupSet.class, BetterRunnableGroup[].class, "groups");
+
+    private volatile BetterRunnableGroup[] groups = EMPTY;
+
+    /**
+     * Returns current snapshot of groups. Returned array must not be modified.
+     */
+    BetterRunnableGroup[] array() {
+        return groups;
+    }
+
+    @Override
+    public int size() {
+        return groups.length;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return indexOf(groups, object) >= 0;
+    }
+
+    @Override
+    public boolean add(BetterRunnableGroup group) {
+        while(true) {
+            BetterRunnableGroup[] current = groups;
+
+            if(indexOf(current, group) >= 0) return false;
+
+            BetterRunnableGroup[] updated = new BetterRunnableGroup[current.length + 1];
+
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = group;
+
+            if(GROUPS.compareAndSet(this, current, updated)) return true;
+        }
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        while(true) {
+            BetterRunnableGroup[] current = groups;
+            int index = indexOf(current, object);
+
+            if(index < 0) return false;
+
+            BetterRunnableGroup[] updated = current.length == 1 ? EMPTY : new BetterRunnableGroup[current.length - 1];
+
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+
+            if(GROUPS.compareAndSet(this, current, updated)) return true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        groups = EMPTY;
+    }
+
+    @Override
+    public Iterator<BetterRunnableGroup> iterator() {
+        BetterRunnableGroup[] snapshot = groups;
+
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public BetterRunnableGroup next() {
+                if(index >= snapshot.length) throw new NoSuchElementException();
+
+                return snapshot[index++];
+            }
+
+            @Override
+            public void remove() {
+                if(index == 0) throw new IllegalStateException();
+
+                GroupSet.this.remove(snapshot[index - 1]);
+            }
+        };
+    }
+
+    private static int indexOf(BetterRunnableGroup[] groups, Object object) {
+        for(int i = 0; i < groups.length; i++)
+            if(groups[i] == object)
+                return i;
+        return -1;
+    }
+
+}
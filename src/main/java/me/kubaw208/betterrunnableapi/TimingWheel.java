@@ -0,0 +1,258 @@
+package me.kubaw208.betterrunnableapi;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timing wheel used by {@link BetterTaskDispatcher}.
+ * The first level has one slot per tick, every next level has 64 slots covering a whole turn of the previous level.
+ * Entries with a delay longer than the last level are kept in the overflow list and are re-checked when the last level cascades.
+ * Scheduling and cancelling an entry is O(1).
+ */
+final class TimingWheel {
+
+    private static final int FIRST_LEVEL_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4;
+    private static final long FIRST_LEVEL_MASK = (1L << FIRST_LEVEL_BITS) - 1;
+    private static final long LEVEL_MASK = (1L << LEVEL_BITS) - 1;
+
+    private final Entry[][] slots = new Entry[LEVELS][];
+    private final Entry overflow = new Entry(null, null);
+    private final Entry due = new Entry(null, null);
+    private final Entry deferred = new Entry(null, null);
+    private final Entry cascading = new Entry(null, null);
+    private long currentTick = 0;
+    private int size = 0;
+
+    TimingWheel() {
+        for(int level = 0; level < LEVELS; level++) {
+            slots[level] = new Entry[level == 0 ? 1 << FIRST_LEVEL_BITS : 1 << LEVEL_BITS];
+
+            for(int slot = 0; slot < slots[level].length; slot++)
+                slots[level][slot] = new Entry(null, null);
+        }
+    }
+
+    /**
+     * Last tick processed by the wheel.
+     */
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Number of scheduled entries, including entries that are due and not processed yet.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules (or reschedules) entry to be due after given delay. Delays lower than 1 tick are treated as 1 tick.
+     */
+    void schedule(Entry entry, long delay) {
+        if(entry.isLinked())
+            entry.unlink();
+        else
+            size++;
+
+        entry.deadline = currentTick + Math.max(1, delay);
+        insert(entry);
+    }
+
+    /**
+     * Removes entry from the wheel.
+     * @return true if entry was scheduled. Else returns false.
+     */
+    boolean cancel(Entry entry) {
+        if(!entry.isLinked()) return false;
+
+        entry.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward by one tick and moves all entries that are due in this tick to the due list.
+     */
+    void advance() {
+        currentTick++;
+
+        if((currentTick & FIRST_LEVEL_MASK) == 0)
+            cascade(1);
+
+        due.spliceFrom(slots[0][(int) (currentTick & FIRST_LEVEL_MASK)]);
+    }
+
+    /**
+     * Removes and returns the first due entry or null if there is none.
+     */
+    Entry pollDue() {
+        Entry entry = due.next;
+
+        if(entry == due) return null;
+
+        entry.unlink();
+        size--;
+        return entry;
+    }
+
+    /**
+     * Puts polled entry aside until {@link #finishTick()}, so it is due again in the next tick.
+     */
+    void defer(Entry entry) {
+        deferred.linkBefore(entry);
+        size++;
+    }
+
+    /**
+     * Moves deferred entries to the front of the due list, so they are processed before entries that become due in the next tick.
+     */
+    void finishTick() {
+        due.spliceFirstFrom(deferred);
+    }
+
+    /**
+     * Removes all entries from the wheel and passes them to the consumer.
+     * Entry deadlines are left untouched, so remaining delays can be computed from {@link #getCurrentTick()}.
+     */
+    void drain(Consumer<Entry> consumer) {
+        drainList(deferred, consumer);
+        drainList(due, consumer);
+
+        for(Entry[] level : slots)
+            for(Entry head : level)
+                drainList(head, consumer);
+
+        drainList(overflow, consumer);
+    }
+
+    private void drainList(Entry head, Consumer<Entry> consumer) {
+        while(head.next != head) {
+            Entry entry = head.next;
+
+            entry.unlink();
+            size--;
+            consumer.accept(entry);
+        }
+    }
+
+    private void cascade(int level) {
+        int shift = FIRST_LEVEL_BITS + (level - 1) * LEVEL_BITS;
+        int index = (int) ((currentTick >> shift) & LEVEL_MASK);
+
+        if(index == 0 && level + 1 < LEVELS)
+            cascade(level + 1);
+
+        reinsertAll(slots[level][index]);
+
+        if(level + 1 == LEVELS)
+            reinsertAll(overflow);
+    }
+
+    private void reinsertAll(Entry head) {
+        cascading.spliceFrom(head);
+
+        while(cascading.next != cascading) {
+            Entry entry = cascading.next;
+
+            entry.unlink();
+            insert(entry);
+        }
+    }
+
+    private void insert(Entry entry) {
+        long delta = entry.deadline - currentTick;
+
+        if(delta < (1L << FIRST_LEVEL_BITS)) {
+            slots[0][(int) (entry.deadline & FIRST_LEVEL_MASK)].linkBefore(entry);
+            return;
+        }
+
+        for(int level = 1; level < LEVELS; level++) {
+            int shift = FIRST_LEVEL_BITS + (level - 1) * LEVEL_BITS;
+
+            if(delta < (1L << (shift + LEVEL_BITS))) {
+                slots[level][(int) ((entry.deadline >> shift) & LEVEL_MASK)].linkBefore(entry);
+                return;
+            }
+        }
+
+        overflow.linkBefore(entry);
+    }
+
+    /**
+     * Node of the wheel. Each dispatched task keeps one entry and reuses it for every schedule.
+     * Heads of the slot lists are entries without a task, so linking and unlinking never needs to know the slot.
+     */
+    static final class Entry {
+
+        final TimingWheel wheel;
+        final BetterTask task;
+        long deadline;
+        long interval;
+        boolean active;
+        private Entry prev;
+        private Entry next;
+
+        Entry(TimingWheel wheel, BetterTask task) {
+            this.wheel = wheel;
+            this.task = task;
+
+            if(task == null) {
+                prev = this;
+                next = this;
+            }
+        }
+
+        boolean isLinked() {
+            return next != null && task != null;
+        }
+
+        private void linkBefore(Entry entry) {
+            entry.prev = prev;
+            entry.next = this;
+            prev.next = entry;
+            prev = entry;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        private void spliceFrom(Entry head) {
+            if(head.next == head) return;
+
+            Entry first = head.next;
+            Entry last = head.prev;
+
+            head.next = head;
+            head.prev = head;
+
+            first.prev = prev;
+            prev.next = first;
+            last.next = this;
+            prev = last;
+        }
+
+        private void spliceFirstFrom(Entry head) {
+            if(head.next == head) return;
+
+            Entry first = head.next;
+            Entry last = head.prev;
+
+            head.next = head;
+            head.prev = head;
+
+            last.next = next;
+            next.prev = last;
+            first.prev = this;
+            next = first;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package me.kubaw208.betterrunnableapi.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Default scheduler that delegates to {@link Bukkit#getScheduler()} and uses system clocks.
+ */
+public final class BukkitTaskScheduler implements TaskScheduler {
+
+    public static final BukkitTaskScheduler INSTANCE = new BukkitTaskScheduler();
+
+    private BukkitTaskScheduler() {}
+
+    @Override
+    public int getCurrentTick() {
+        return Bukkit.getCurrentTick();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public double getAverageTickTime() {
+        return Bukkit.getAverageTickTime();
+    }
+
+    @Override
+    public boolean isPrimaryThread() {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public int scheduleSyncRepeatingTask(Plugin plugin, Runnable task, long delay, long period) {
+        return Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, task, delay, period);
+    }
+
+    @Override
+    public int scheduleSyncDelayedTask(Plugin plugin, Runnable task, long delay) {
+        return Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, task, delay);
+    }
+
+    @Override
+    public BukkitTask runTask(Plugin plugin, Runnable task) {
+        return Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay) {
+        return Bukkit.getScheduler().runTaskLater(plugin, task, delay);
+    }
+
+    @Override
+    public BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+        return Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period);
+    }
+
+    @Override
+    public BukkitTask runTaskLaterAsynchronously(Plugin plugin, Runnable task, long delay) {
+        return Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, task, delay);
+    }
+
+    @Override
+    public BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period) {
+        return Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delay, period);
+    }
+
+    @Override
+    public void cancelTask(int taskID) {
+        Bukkit.getScheduler().cancelTask(taskID);
+    }
+
+}
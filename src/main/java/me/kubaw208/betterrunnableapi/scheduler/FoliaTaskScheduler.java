@@ -0,0 +1,329 @@
+package me.kubaw208.betterrunnableapi.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Scheduler for Folia servers, where {@link Bukkit#getScheduler()} is not available.
+ * Synchronous tasks run on the global region, location and entity bound tasks run on the region that owns them
+ * and asynchronous tasks run on the Folia asynchronous scheduler.
+ * <br><br>
+ * Folia API is accessed reflectively, so the library can still be compiled against the Bukkit API and used on other servers.
+ * This scheduler is selected automatically by {@link TaskSchedulers} when the server is Folia.
+ */
+public final class FoliaTaskScheduler implements TaskScheduler {
+
+    private static final long MILLIS_PER_TICK = 50;
+    private static final boolean SUPPORTED = detect();
+
+    private final Map<Integer, FoliaTask> tasks = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTaskID = new AtomicInteger(1);
+    private final long startNanos = System.nanoTime();
+    private final Method globalScheduler;
+    private final Method regionScheduler;
+    private final Method asyncScheduler;
+    private final Method entityScheduler;
+    private final Method isGlobalTickThread;
+    private final Method globalRun;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method regionRunDelayed;
+    private final Method regionRunAtFixedRate;
+    private final Method asyncRunDelayed;
+    private final Method asyncRunAtFixedRate;
+    private final Method entityRunDelayed;
+    private final Method entityRunAtFixedRate;
+    private final Method taskCancel;
+    private final Method taskIsCancelled;
+    private volatile boolean currentTickSupported = true;
+    private volatile boolean averageTickTimeSupported = true;
+
+    /**
+     * Creates a new Folia scheduler.
+     * @throws IllegalStateException if the server is not Folia.
+     */
+    public FoliaTaskScheduler() {
+        if(!SUPPORTED)
+            throw new IllegalStateException("Folia scheduler API is not available on this server");
+
+        try {
+            globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler");
+            regionScheduler = Bukkit.class.getMethod("getRegionScheduler");
+            asyncScheduler = Bukkit.class.getMethod("getAsyncScheduler");
+            entityScheduler = Entity.class.getMethod("getScheduler");
+            isGlobalTickThread = Bukkit.class.getMethod("isGlobalTickThread");
+
+            Class<?> global = globalScheduler.getReturnType();
+            Class<?> region = regionScheduler.getReturnType();
+            Class<?> async = asyncScheduler.getReturnType();
+            Class<?> entity = entityScheduler.getReturnType();
+            Class<?> scheduledTask = Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask");
+
+            globalRun = global.getMethod("run", Plugin.class, Consumer.class);
+            globalRunDelayed = global.getMethod("runDelayed", Plugin.class, Consumer.class, long.class);
+            globalRunAtFixedRate = global.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+            regionRunDelayed = region.getMethod("runDelayed", Plugin.class, Location.class, Consumer.class, long.class);
+            regionRunAtFixedRate = region.getMethod("runAtFixedRate", Plugin.class, Location.class, Consumer.class, long.class, long.class);
+            asyncRunDelayed = async.getMethod("runDelayed", Plugin.class, Consumer.class, long.class, TimeUnit.class);
+            asyncRunAtFixedRate = async.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class);
+            entityRunDelayed = entity.getMethod("runDelayed", Plugin.class, Consumer.class, Runnable.class, long.class);
+            entityRunAtFixedRate = entity.getMethod("runAtFixedRate", Plugin.class, Consumer.class, Runnable.class, long.class, long.class);
+            taskCancel = scheduledTask.getMethod("cancel");
+            taskIsCancelled = scheduledTask.getMethod("isCancelled");
+        } catch(ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unsupported version of Folia scheduler API", exception);
+        }
+    }
+
+    /**
+     * Returns true if the server is Folia. Else returns false.
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    private static boolean detect() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch(ClassNotFoundException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Current tick of the server. If the server doesn't provide it, ticks are counted from the wall clock.
+     */
+    @Override
+    public int getCurrentTick() {
+        if(currentTickSupported) {
+            try {
+                return Bukkit.getCurrentTick();
+            } catch(UnsupportedOperationException exception) {
+                currentTickSupported = false;
+            }
+        }
+
+        return (int) ((System.nanoTime() - startNanos) / (MILLIS_PER_TICK * 1_000_000L));
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Average tick time of the server or 0 if the server doesn't provide it.
+     */
+    @Override
+    public double getAverageTickTime() {
+        if(!averageTickTimeSupported) return 0;
+
+        try {
+            return Bukkit.getAverageTickTime();
+        } catch(UnsupportedOperationException exception) {
+            averageTickTimeSupported = false;
+            return 0;
+        }
+    }
+
+    /**
+     * Returns true if the current thread ticks the global region. Else returns false.
+     */
+    @Override
+    public boolean isPrimaryThread() {
+        return (boolean) invoke(isGlobalTickThread, null);
+    }
+
+    @Override
+    public int scheduleSyncRepeatingTask(Plugin plugin, Runnable task, long delay, long period) {
+        return runTaskTimer(plugin, task, delay, period).getTaskId();
+    }
+
+    @Override
+    public int scheduleSyncDelayedTask(Plugin plugin, Runnable task, long delay) {
+        return runTaskLater(plugin, task, delay).getTaskId();
+    }
+
+    @Override
+    public BukkitTask runTask(Plugin plugin, Runnable task) {
+        var foliaTask = new FoliaTask(plugin, task, false, true);
+
+        return foliaTask.bind(invoke(globalRun, invoke(globalScheduler, null), plugin, foliaTask.consumer()));
+    }
+
+    @Override
+    public BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay) {
+        var foliaTask = new FoliaTask(plugin, task, false, true);
+
+        return foliaTask.bind(invoke(globalRunDelayed, invoke(globalScheduler, null), plugin, foliaTask.consumer(), Math.max(1, delay)));
+    }
+
+    @Override
+    public BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+        var foliaTask = new FoliaTask(plugin, task, true, true);
+
+        return foliaTask.bind(invoke(globalRunAtFixedRate, invoke(globalScheduler, null), plugin, foliaTask.consumer(), Math.max(1, delay), Math.max(1, period)));
+    }
+
+    @Override
+    public BukkitTask runTaskLaterAsynchronously(Plugin plugin, Runnable task, long delay) {
+        var foliaTask = new FoliaTask(plugin, task, false, false);
+
+        return foliaTask.bind(invoke(asyncRunDelayed, invoke(asyncScheduler, null), plugin, foliaTask.consumer(),
+                Math.max(0, delay) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period) {
+        var foliaTask = new FoliaTask(plugin, task, true, false);
+
+        return foliaTask.bind(invoke(asyncRunAtFixedRate, invoke(asyncScheduler, null), plugin, foliaTask.consumer(),
+                Math.max(1, delay) * MILLIS_PER_TICK, Math.max(1, period) * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public BukkitTask runAtLocation(Plugin plugin, Location location, Runnable task, long delay, long period) {
+        var foliaTask = new FoliaTask(plugin, task, period > 0, true);
+        var scheduler = invoke(regionScheduler, null);
+
+        if(period > 0)
+            return foliaTask.bind(invoke(regionRunAtFixedRate, scheduler, plugin, location, foliaTask.consumer(), Math.max(1, delay), period));
+
+        return foliaTask.bind(invoke(regionRunDelayed, scheduler, plugin, location, foliaTask.consumer(), Math.max(1, delay)));
+    }
+
+    @Override
+    public BukkitTask runForEntity(Plugin plugin, Entity entity, Runnable task, Runnable retired, long delay, long period) {
+        var foliaTask = new FoliaTask(plugin, task, period > 0, true);
+        var scheduler = invoke(entityScheduler, entity);
+        Object scheduledTask;
+
+        if(period > 0)
+            scheduledTask = invoke(entityRunAtFixedRate, scheduler, plugin, foliaTask.consumer(), retired, Math.max(1, delay), period);
+        else
+            scheduledTask = invoke(entityRunDelayed, scheduler, plugin, foliaTask.consumer(), retired, Math.max(1, delay));
+
+        // Folia doesn't schedule anything for an entity that was already removed, the returned task is cancelled
+        return foliaTask.bind(scheduledTask);
+    }
+
+    @Override
+    public void cancelTask(int taskID) {
+        var task = tasks.get(taskID);
+
+        if(task != null)
+            task.cancel();
+    }
+
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch(InvocationTargetException exception) {
+            if(exception.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if(exception.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(exception.getCause());
+        } catch(IllegalAccessException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Folia scheduled task presented as a Bukkit task.
+     */
+    private final class FoliaTask implements BukkitTask {
+
+        private final int id = nextTaskID.getAndIncrement();
+        private final Plugin owner;
+        private final Runnable runnable;
+        private final boolean repeating;
+        private final boolean sync;
+        private volatile Object scheduledTask;
+        private volatile boolean cancelled = false;
+
+        private FoliaTask(Plugin owner, Runnable runnable, boolean repeating, boolean sync) {
+            this.owner = owner;
+            this.runnable = runnable;
+            this.repeating = repeating;
+            this.sync = sync;
+
+            // Registered before Folia gets the task, because a delayed task can finish on a region thread before it is bound
+            tasks.put(id, this);
+        }
+
+        private Consumer<Object> consumer() {
+            return scheduledTask -> {
+                if(cancelled) return;
+
+                try {
+                    runnable.run();
+                } finally {
+                    if(!repeating)
+                        tasks.remove(id);
+                }
+            };
+        }
+
+        private FoliaTask bind(Object scheduledTask) {
+            this.scheduledTask = scheduledTask;
+
+            if(scheduledTask == null) {
+                cancelled = true;
+                tasks.remove(id);
+            }
+
+            return this;
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            var scheduledTask = this.scheduledTask;
+
+            return cancelled || (scheduledTask != null && (boolean) invoke(taskIsCancelled, scheduledTask));
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            tasks.remove(id);
+
+            var scheduledTask = this.scheduledTask;
+
+            if(scheduledTask != null)
+                invoke(taskCancel, scheduledTask);
+        }
+
+    }
+
+}
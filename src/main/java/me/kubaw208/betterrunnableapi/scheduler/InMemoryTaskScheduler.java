@@ -0,0 +1,274 @@
+package me.kubaw208.betterrunnableapi.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Deterministic single-threaded scheduler that works without a running server, for tests and benchmarks.
+ * Time moves only when {@link #tick()} or {@link #advanceTime(long)} is called. Every tick moves the clocks forward by 50 milliseconds.
+ * All tasks, including asynchronous ones, are executed inline on the thread that calls {@link #tick()}.
+ * The thread that created the scheduler is treated as the main server thread.
+ * Location and entity bound tasks are executed like other tasks, and removal of an entity can be simulated by {@link #retire(Entity)}.
+ * <br><br>
+ * Example:
+ * <pre>{@code
+ * var scheduler = new InMemoryTaskScheduler();
+ * TaskSchedulers.set(plugin, scheduler);
+ *
+ * new BetterRunnable(plugin, task -> counter++, 0, 5); // Tasks start when they are created
+ * scheduler.tick(20); // counter == 4
+ * }</pre>
+ */
+public final class InMemoryTaskScheduler implements TaskScheduler {
+
+    public static final long NANOS_PER_TICK = 50_000_000L;
+
+    private final Map<Integer, ScheduledTask> tasks = new HashMap<>();
+    private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>((first, second) ->
+            first.nextRun != second.nextRun ? Long.compare(first.nextRun, second.nextRun) : Integer.compare(first.id, second.id));
+    private final Thread primaryThread = Thread.currentThread();
+    private int currentTick = 0;
+    private long nanoTime = 0;
+    private int nextTaskID = 1;
+    private double averageTickTime = 0;
+
+    @Override
+    public int getCurrentTick() {
+        return currentTick;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanoTime;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return nanoTime / 1_000_000;
+    }
+
+    @Override
+    public double getAverageTickTime() {
+        return averageTickTime;
+    }
+
+    /**
+     * Sets average tick time reported by the scheduler, for example to simulate an overloaded server.
+     */
+    public void setAverageTickTime(double averageTickTime) {
+        this.averageTickTime = averageTickTime;
+    }
+
+    @Override
+    public boolean isPrimaryThread() {
+        return Thread.currentThread() == primaryThread;
+    }
+
+    /**
+     * Moves clocks forward without moving ticks, for example to simulate a long task execution.
+     */
+    public void advanceTime(long nanos) {
+        nanoTime += nanos;
+    }
+
+    /**
+     * Number of scheduled tasks that are not finished or cancelled.
+     */
+    public int getPendingTasks() {
+        return tasks.size();
+    }
+
+    /**
+     * Moves the scheduler forward by one tick and executes all due tasks.
+     */
+    public void tick() {
+        currentTick++;
+        nanoTime += NANOS_PER_TICK;
+
+        while(!queue.isEmpty() && queue.peek().nextRun <= currentTick) {
+            ScheduledTask task = queue.poll();
+
+            if(task.cancelled) continue;
+
+            task.runnable.run();
+
+            if(task.cancelled) continue;
+
+            if(task.period > 0) {
+                task.nextRun = currentTick + task.period;
+                queue.add(task);
+            } else {
+                tasks.remove(task.id);
+            }
+        }
+    }
+
+    /**
+     * Moves the scheduler forward by given number of ticks.
+     */
+    public void tick(int ticks) {
+        for(int i = 0; i < ticks; i++)
+            tick();
+    }
+
+    /**
+     * Simulates removal of an entity. Cancels all tasks bound to the entity and executes their retired actions.
+     */
+    public void retire(Entity entity) {
+        for(var task : new ArrayList<>(tasks.values())) {
+            if(task.entity != entity) continue;
+
+            task.cancel();
+
+            if(task.retired != null)
+                task.retired.run();
+        }
+    }
+
+    /**
+     * Number of scheduled tasks bound to given location.
+     */
+    public int getPendingTasks(Location location) {
+        int count = 0;
+
+        for(var task : tasks.values())
+            if(location.equals(task.location))
+                count++;
+
+        return count;
+    }
+
+    /**
+     * Cancels all scheduled tasks.
+     */
+    public void cancelAll() {
+        tasks.values().forEach(task -> task.cancelled = true);
+        tasks.clear();
+        queue.clear();
+    }
+
+    @Override
+    public int scheduleSyncRepeatingTask(Plugin plugin, Runnable task, long delay, long period) {
+        return add(plugin, task, delay, period, true).id;
+    }
+
+    @Override
+    public int scheduleSyncDelayedTask(Plugin plugin, Runnable task, long delay) {
+        return add(plugin, task, delay, -1, true).id;
+    }
+
+    @Override
+    public BukkitTask runTask(Plugin plugin, Runnable task) {
+        return add(plugin, task, 0, -1, true);
+    }
+
+    @Override
+    public BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay) {
+        return add(plugin, task, delay, -1, true);
+    }
+
+    @Override
+    public BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+        return add(plugin, task, delay, period, true);
+    }
+
+    @Override
+    public BukkitTask runTaskLaterAsynchronously(Plugin plugin, Runnable task, long delay) {
+        return add(plugin, task, delay, -1, false);
+    }
+
+    @Override
+    public BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period) {
+        return add(plugin, task, delay, period, false);
+    }
+
+    @Override
+    public BukkitTask runAtLocation(Plugin plugin, Location location, Runnable task, long delay, long period) {
+        var scheduledTask = add(plugin, task, delay, period, true);
+
+        scheduledTask.location = location;
+        return scheduledTask;
+    }
+
+    @Override
+    public BukkitTask runForEntity(Plugin plugin, Entity entity, Runnable task, Runnable retired, long delay, long period) {
+        var scheduledTask = add(plugin, task, delay, period, true);
+
+        scheduledTask.entity = entity;
+        scheduledTask.retired = retired;
+        return scheduledTask;
+    }
+
+    @Override
+    public void cancelTask(int taskID) {
+        var task = tasks.remove(taskID);
+
+        if(task != null)
+            task.cancelled = true;
+    }
+
+    private ScheduledTask add(Plugin plugin, Runnable runnable, long delay, long period, boolean sync) {
+        var task = new ScheduledTask(nextTaskID++, plugin, runnable, currentTick + Math.max(1, delay), period, sync);
+
+        tasks.put(task.id, task);
+        queue.add(task);
+        return task;
+    }
+
+    private final class ScheduledTask implements BukkitTask {
+
+        private final int id;
+        private final Plugin owner;
+        private final Runnable runnable;
+        private final long period;
+        private final boolean sync;
+        private long nextRun;
+        private boolean cancelled = false;
+        private Location location;
+        private Entity entity;
+        private Runnable retired;
+
+        private ScheduledTask(int id, Plugin owner, Runnable runnable, long nextRun, long period, boolean sync) {
+            this.id = id;
+            this.owner = owner;
+            this.runnable = runnable;
+            this.nextRun = nextRun;
+            this.period = period;
+            this.sync = sync;
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelTask(id);
+        }
+
+    }
+
+}
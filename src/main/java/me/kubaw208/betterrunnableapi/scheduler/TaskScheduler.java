@@ -0,0 +1,104 @@
+package me.kubaw208.betterrunnableapi.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Scheduler and clock used by all tasks of the library.
+ * Methods mirror the parts of the Bukkit scheduler that the library needs, so the Bukkit implementation is a thin delegate
+ * and other implementations (for example {@link InMemoryTaskScheduler}) can run the library without a server.
+ *
+ * @see TaskSchedulers
+ */
+public interface TaskScheduler {
+
+    /**
+     * Current server tick.
+     */
+    int getCurrentTick();
+
+    /**
+     * Current value of the high-resolution time source in nanoseconds, like {@link System#nanoTime()}.
+     */
+    long nanoTime();
+
+    /**
+     * Current wall-clock time in milliseconds, like {@link System#currentTimeMillis()}.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Average time of recent server ticks in milliseconds (MSPT) or 0 if it is unknown.
+     */
+    double getAverageTickTime();
+
+    /**
+     * Returns true if the current thread is the main server thread. Else returns false.
+     */
+    boolean isPrimaryThread();
+
+    /**
+     * Schedules a synchronous repeating task.
+     * @return ID of the scheduled task.
+     */
+    int scheduleSyncRepeatingTask(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Schedules a synchronous task executed once after given delay.
+     * @return ID of the scheduled task.
+     */
+    int scheduleSyncDelayedTask(Plugin plugin, Runnable task, long delay);
+
+    /**
+     * Schedules a synchronous task executed in the next tick.
+     */
+    BukkitTask runTask(Plugin plugin, Runnable task);
+
+    /**
+     * Schedules a synchronous task executed once after given delay.
+     */
+    BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay);
+
+    /**
+     * Schedules a synchronous repeating task.
+     */
+    BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Schedules an asynchronous task executed once after given delay.
+     */
+    BukkitTask runTaskLaterAsynchronously(Plugin plugin, Runnable task, long delay);
+
+    /**
+     * Schedules an asynchronous repeating task.
+     */
+    BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Schedules a synchronous task on the region that owns given location.
+     * Servers without regions run the task on the main thread.
+     * @param period time in ticks between runs or 0 if the task should be executed only once.
+     */
+    default BukkitTask runAtLocation(Plugin plugin, Location location, Runnable task, long delay, long period) {
+        return period > 0 ? runTaskTimer(plugin, task, delay, period) : runTaskLater(plugin, task, delay);
+    }
+
+    /**
+     * Schedules a synchronous task on the region that owns given entity. The task follows the entity between regions.
+     * Servers without regions run the task on the main thread.
+     * @param retired action executed instead of the task once the entity is removed, can be null. Servers without regions never execute it.
+     *                If the entity is already removed, the action is not executed and the returned task is cancelled.
+     * @param period time in ticks between runs or 0 if the task should be executed only once.
+     */
+    default BukkitTask runForEntity(Plugin plugin, Entity entity, Runnable task, Runnable retired, long delay, long period) {
+        return period > 0 ? runTaskTimer(plugin, task, delay, period) : runTaskLater(plugin, task, delay);
+    }
+
+    /**
+     * Cancels a task by its ID.
+     */
+    void cancelTask(int taskID);
+
+}
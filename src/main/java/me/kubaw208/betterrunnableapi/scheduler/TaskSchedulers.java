@@ -0,0 +1,59 @@
+package me.kubaw208.betterrunnableapi.scheduler;
+
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects scheduler used by tasks of a plugin. Tasks pick their scheduler when they are created.
+ * By default, all plugins use {@link FoliaTaskScheduler} on Folia servers and {@link BukkitTaskScheduler} on other servers.
+ */
+public final class TaskSchedulers {
+
+    private static final Map<Plugin, TaskScheduler> schedulers = new ConcurrentHashMap<>();
+    private static volatile TaskScheduler defaultScheduler = serverScheduler();
+
+    private TaskSchedulers() {}
+
+    /**
+     * Returns scheduler of the plugin. If the plugin has no scheduler set, returns the default scheduler.
+     */
+    public static TaskScheduler get(Plugin plugin) {
+        if(plugin == null || schedulers.isEmpty()) return defaultScheduler;
+
+        var scheduler = schedulers.get(plugin);
+        return scheduler != null ? scheduler : defaultScheduler;
+    }
+
+    /**
+     * Sets scheduler of the plugin.
+     * @param scheduler scheduler or null to use the default scheduler.
+     */
+    public static void set(Plugin plugin, TaskScheduler scheduler) {
+        if(scheduler == null)
+            schedulers.remove(plugin);
+        else
+            schedulers.put(plugin, scheduler);
+    }
+
+    /**
+     * Returns scheduler used by plugins without their own scheduler.
+     */
+    public static TaskScheduler getDefault() {
+        return defaultScheduler;
+    }
+
+    /**
+     * Sets scheduler used by plugins without their own scheduler.
+     * @param scheduler scheduler or null to use the scheduler matching the server.
+     */
+    public static void setDefault(TaskScheduler scheduler) {
+        defaultScheduler = scheduler != null ? scheduler : serverScheduler();
+    }
+
+    private static TaskScheduler serverScheduler() {
+        return FoliaTaskScheduler.isSupported() ? new FoliaTaskScheduler() : BukkitTaskScheduler.INSTANCE;
+    }
+
+}
@@ -0,0 +1,102 @@
+package me.kubaw208.betterrunnableapi.structs;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of durations, similar to HdrHistogram.
+ * Durations are recorded with microsecond resolution into buckets with relative error of at most 12.5%.
+ * Recording is a single atomic increment, so it can be used from any thread.
+ * Durations longer than about 71 minutes are recorded as the longest bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_MICROS = (1L << 32) - 1;
+    private static final int BUCKETS = indexOf(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a duration.
+     * @param nanos duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(Math.min(Math.max(nanos, 0) / 1000, MAX_MICROS)));
+    }
+
+    /**
+     * Adds all values recorded in other histogram to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for(int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+
+            if(count != 0)
+                counts.addAndGet(i, count);
+        }
+    }
+
+    /**
+     * Number of recorded values.
+     */
+    public long getCount() {
+        long count = 0;
+
+        for(int i = 0; i < BUCKETS; i++)
+            count += counts.get(i);
+
+        return count;
+    }
+
+    /**
+     * Returns duration in nanoseconds that is greater than or equal to given percentage of recorded values.
+     * @param percentile percentile from 0 to 100.
+     * @return upper bound of the bucket containing the percentile or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+
+        if(count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+
+            if(seen >= target)
+                return highestMicrosOf(i) * 1000;
+        }
+
+        return MAX_MICROS * 1000;
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+    }
+
+    private static int indexOf(long micros) {
+        if(micros < SUB_BUCKETS) return (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestMicrosOf(int index) {
+        if(index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+
+        return (SUB_BUCKETS + subBucket) * width + width - 1;
+    }
+
+}
@@ -0,0 +1,18 @@
+package me.kubaw208.betterrunnableapi.structs;
+
+/**
+ * Decides what happens when a repeating asynchronous task is due while its previous execution is still running.
+ * <br><br>
+ * SKIP - Default. The run is skipped, so at most one execution of the task runs at a time.
+ * <br><br>
+ * QUEUE - At most one run is queued and executed right after the running execution finishes. Further runs are skipped.
+ * <br><br>
+ * CONCURRENT - Executions run concurrently up to the maximal number of concurrent runs of the task. Further runs are skipped.
+ */
+public enum OverrunPolicy {
+
+    SKIP,
+    QUEUE,
+    CONCURRENT
+
+}
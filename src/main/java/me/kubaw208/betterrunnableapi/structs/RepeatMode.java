@@ -0,0 +1,14 @@
+package me.kubaw208.betterrunnableapi.structs;
+
+/**
+ * FIXED_RATE - Runs are planned from the start of the task, so the task keeps its rate even if executions take a while.
+ * If an execution takes longer than the interval, the next run starts right after it (runs never overlap and missed runs are not repeated).
+ * <br><br>
+ * FIXED_DELAY - The next run is planned an interval after the previous execution has finished.
+ */
+public enum RepeatMode {
+
+    FIXED_RATE,
+    FIXED_DELAY
+
+}
@@ -0,0 +1,32 @@
+package me.kubaw208.betterrunnableapi.structs;
+
+/**
+ * Priority of tasks driven by the dispatcher. Priorities matter only under tick pressure, otherwise all due tasks are executed.
+ * <br><br>
+ * CRITICAL - Always executed on time, never deferred by tick budgets and never shed.
+ * <br><br>
+ * HIGH - Executed before NORMAL and LOW tasks. Deferred to the next tick when a tick budget is exceeded.
+ * <br><br>
+ * NORMAL - Default priority. Deferred to the next tick when a tick budget is exceeded.
+ * <br><br>
+ * LOW - Executed last. Repeating tasks are shed (their execution is skipped until the next interval) when a tick budget is exceeded
+ * or the server is overloaded. Delayed tasks are deferred instead, so they are never lost.
+ */
+public enum TaskPriority {
+
+    CRITICAL,
+    HIGH,
+    NORMAL,
+    LOW;
+
+    /**
+     * Returns the higher of two priorities. Null is treated as no priority.
+     */
+    public static TaskPriority highest(TaskPriority first, TaskPriority second) {
+        if(first == null) return second;
+        if(second == null) return first;
+
+        return first.ordinal() <= second.ordinal() ? first : second;
+    }
+
+}
@@ -0,0 +1,50 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BetterAsyncRunnableTest {
+
+    private final TestServer server = new TestServer();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void executesOnceEveryInterval() {
+        new BetterAsyncRunnable(server.getPlugin(), task -> executions.incrementAndGet(), 0, 5);
+
+        server.tick(20);
+
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    void repeatedPausesDontCountEarlierPauses() {
+        var runnable = new BetterAsyncRunnable(server.getPlugin(), task -> executions.incrementAndGet(), 20, 100);
+
+        server.tick(5);
+        runnable.pause();
+        server.tick(30);
+        runnable.unpause(); // 15 ticks remain
+
+        server.tick(5);
+        runnable.pause();
+        server.tick(30);
+        runnable.unpause(); // 10 ticks remain
+
+        server.tick(9);
+        assertEquals(0, executions.get());
+
+        server.tick(1);
+        assertEquals(1, executions.get());
+    }
+
+}
@@ -0,0 +1,92 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BetterDelayedRunnableTest {
+
+    private final TestServer server = new TestServer();
+    private int executions = 0;
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void executesOnceAfterDelay() {
+        var runnable = new BetterDelayedRunnable(server.getPlugin(), task -> executions++, 10);
+
+        server.tick(9);
+        assertEquals(0, executions);
+
+        server.tick(1);
+        assertEquals(1, executions);
+        assertTrue(runnable.isStopped());
+
+        server.tick(20);
+        assertEquals(1, executions);
+    }
+
+    @Test
+    void pauseKeepsPassedTime() {
+        var runnable = new BetterDelayedRunnable(server.getPlugin(), task -> executions++, 10);
+
+        server.tick(4);
+        runnable.pause();
+        assertEquals(4, runnable.passedTime);
+
+        server.tick(16);
+        runnable.unpause(); // Tick 20, 6 ticks remain
+
+        server.tick(5);
+        assertEquals(0, executions);
+
+        server.tick(1);
+        assertEquals(1, executions);
+        assertEquals(0, runnable.passedTime, "passed time is reset by the execution");
+    }
+
+    @Test
+    void repeatedPausesAddUpPassedTime() {
+        var runnable = new BetterDelayedRunnable(server.getPlugin(), task -> executions++, 10);
+
+        server.tick(3);
+        runnable.pause();
+        server.tick(5);
+        runnable.unpause();
+        server.tick(4);
+        runnable.pause();
+
+        assertEquals(7, runnable.passedTime);
+
+        server.tick(5);
+        runnable.unpause(); // Tick 17, 3 ticks remain
+        server.tick(2);
+        assertEquals(0, executions);
+
+        server.tick(1);
+        assertEquals(1, executions);
+    }
+
+    @Test
+    void restartPlansRunAgain() {
+        var runnable = new BetterDelayedRunnable(server.getPlugin(), task -> executions++, 10);
+
+        server.tick(5);
+        runnable.restart(3);
+        server.tick(2);
+        assertEquals(0, executions);
+
+        server.tick(1);
+        assertEquals(1, executions);
+
+        runnable.restart(2);
+        server.tick(2);
+        assertEquals(2, executions);
+    }
+
+}
@@ -0,0 +1,50 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BetterExecutorsTest {
+
+    @AfterEach
+    void tearDown() {
+        BetterExecutors.setTimer(null);
+        BetterExecutors.shutdown();
+    }
+
+    @Test
+    void shutdownReleasesSharedExecutors() {
+        var pool = BetterExecutors.getSharedPool();
+        var timer = BetterExecutors.getTimer();
+
+        BetterExecutors.shutdown();
+
+        assertTrue(pool.isShutdown());
+        assertTrue(timer.isShutdown());
+        assertNotSame(pool, BetterExecutors.getSharedPool());
+        assertNotSame(timer, BetterExecutors.getTimer());
+        assertFalse(BetterExecutors.getSharedPool().isShutdown());
+    }
+
+    @Test
+    void shutdownKeepsTimerSetByPlugin() {
+        var sharedTimer = BetterExecutors.getTimer();
+        var timer = Executors.newSingleThreadScheduledExecutor();
+
+        BetterExecutors.setTimer(timer);
+        BetterExecutors.shutdown();
+
+        assertTrue(sharedTimer.isShutdown());
+        assertFalse(timer.isShutdown());
+        assertSame(timer, BetterExecutors.getTimer());
+
+        timer.shutdown();
+    }
+
+}
@@ -0,0 +1,60 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BetterMainThreadQueueTest {
+
+    private final TestServer server = new TestServer();
+    private final List<Integer> executed = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void executesActionsInNextTickInOrder() {
+        var queue = BetterMainThreadQueue.of(server.getPlugin());
+
+        queue.submit(() -> executed.add(1));
+        queue.submit(() -> executed.add(2));
+
+        assertEquals(2, queue.getBacklog());
+
+        server.tick(1);
+
+        assertIterableEquals(List.of(1, 2), executed);
+        assertEquals(0, queue.getBacklog());
+    }
+
+    @Test
+    void queueOfDisabledPluginIsEvicted() {
+        BetterMainThreadQueue.of(server.getPlugin());
+        server.disablePlugin();
+
+        assertNull(BetterMainThreadQueue.get(server.getPlugin()));
+        assertThrows(IllegalPluginAccessException.class, () -> BetterMainThreadQueue.of(server.getPlugin()));
+    }
+
+    @Test
+    void submitFailsAfterPluginWasDisabled() {
+        var queue = BetterMainThreadQueue.of(server.getPlugin());
+
+        server.disablePlugin();
+
+        assertThrows(IllegalPluginAccessException.class, () -> queue.submit(() -> executed.add(1)));
+        assertEquals(0, queue.getBacklog());
+        assertNull(BetterMainThreadQueue.get(server.getPlugin()));
+    }
+
+}
@@ -0,0 +1,63 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BetterPhaseSpreaderTest {
+
+    private final TestServer server = new TestServer();
+    private BetterPhaseSpreader spreader;
+
+    @BeforeEach
+    void setUp() {
+        spreader = BetterPhaseSpreader.of(server.getPlugin());
+        spreader.setAutomatic(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void spreadsTasksWithSameInterval() {
+        for(int i = 0; i < 4; i++)
+            new BetterRunnable(server.getPlugin(), task -> {}, 4);
+
+        assertArrayEquals(new int[] {1, 1, 1, 1}, spreader.getPhaseLoad(4));
+        assertArrayEquals(new int[] {1, 1, 1, 1}, spreader.getLoadHistogram(4));
+    }
+
+    @Test
+    void spreadsIntervalAtPhaseCap() {
+        var first = new BetterRunnable(server.getPlugin(), task -> {}, BetterPhaseSpreader.MAX_PHASES);
+        var second = new BetterRunnable(server.getPlugin(), task -> {}, BetterPhaseSpreader.MAX_PHASES);
+
+        server.tick(2);
+
+        assertEquals(1, first.getExecutions());
+        assertEquals(1, second.getExecutions());
+        assertEquals(2, Arrays.stream(spreader.getPhaseLoad(BetterPhaseSpreader.MAX_PHASES)).sum());
+    }
+
+    @Test
+    void doesNotSpreadIntervalsOverPhaseCap() {
+        long interval = BetterPhaseSpreader.MAX_PHASES * 2L;
+        var first = new BetterRunnable(server.getPlugin(), task -> {}, interval);
+        var second = new BetterRunnable(server.getPlugin(), task -> {}, interval);
+
+        server.tick(1);
+
+        assertEquals(1, first.getExecutions());
+        assertEquals(1, second.getExecutions());
+        assertEquals(0, spreader.getPhaseLoad(interval).length);
+        assertEquals(0, Arrays.stream(spreader.getLoadHistogram(BetterPhaseSpreader.MAX_PHASES)).sum());
+    }
+
+}
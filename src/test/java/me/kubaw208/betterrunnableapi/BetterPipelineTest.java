@@ -0,0 +1,128 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BetterPipelineTest {
+
+    private final TestServer server = new TestServer();
+    /**
+     * Executor of asynchronous stages that holds hand-overs until {@link #runAsyncStages()}.
+     */
+    private final Queue<Runnable> asyncQueue = new ArrayDeque<>();
+    private final List<String> executed = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void stagesPassValuesAcrossHops() {
+        var pipeline = BetterPipeline.<Integer>create(server.getPlugin())
+                .setExecutor(asyncQueue::add)
+                .sync("first", value -> value + 1)
+                .sync("second", value -> value * 10)
+                .async("load", value -> "v" + value)
+                .sync("apply", String::length);
+
+        var run = pipeline.run(1);
+
+        assertEquals(2, run.getStage(), "consecutive synchronous stages are executed inline");
+
+        runAsyncStages();
+        assertEquals(3, run.getStage());
+        assertFalse(run.isCompleted(), "synchronous stage waits for the main thread queue");
+
+        server.tick(1);
+        assertTrue(run.isCompleted());
+        assertEquals(3, (int) run.getResult());
+        assertTrue(run.isStopped());
+        assertEquals(1, pipeline.getRunTimes().getCount());
+        assertEquals(0, BetterTaskRegistry.of(server.getPlugin()).getSize());
+    }
+
+    @Test
+    void stoppingGroupCancelsRun() {
+        var group = new BetterRunnableGroup();
+        var run = BetterPipeline.<Integer>create(server.getPlugin())
+                .setExecutor(asyncQueue::add)
+                .async(value -> value)
+                .syncAccept(value -> executed.add("apply"))
+                .run(group, 1);
+
+        assertEquals(1, group.getTasks().size());
+
+        group.stopAll();
+        runAsyncStages();
+        server.tick(2);
+
+        assertTrue(run.isCancelled());
+        assertTrue(executed.isEmpty());
+        assertTrue(group.getTasks().isEmpty());
+    }
+
+    @Test
+    void pausedGroupHoldsRunBeforeNextStage() {
+        var group = new BetterRunnableGroup();
+        var run = BetterPipeline.<Integer>create(server.getPlugin())
+                .setExecutor(asyncQueue::add)
+                .async(value -> value)
+                .syncAccept(value -> executed.add("apply"))
+                .run(group, 1);
+
+        group.pauseAll();
+        runAsyncStages();
+        server.tick(3);
+
+        assertTrue(executed.isEmpty());
+        assertEquals(0, run.getStage(), "handed over stage is held until unpause");
+
+        group.unpauseAll();
+        runAsyncStages();
+        server.tick(1);
+
+        assertEquals(List.of("apply"), executed);
+        assertTrue(run.isCompleted());
+    }
+
+    @Test
+    void failedStageStopsRunAndReportsException() {
+        var errors = new ArrayList<Throwable>();
+        var failure = new IllegalStateException("failure");
+        var pipeline = BetterPipeline.<Integer>create(server.getPlugin())
+                .setErrorAction(errors::add)
+                .sync("failing", value -> { throw failure; })
+                .syncAccept(value -> executed.add("after failure"));
+
+        var run = pipeline.run(1);
+
+        assertSame(failure, run.getFailure());
+        assertEquals(List.of(failure), errors);
+        assertEquals(1, pipeline.getStages().get(0).getFailures());
+        assertFalse(run.isCancelled());
+        assertNull(run.getResult());
+        assertTrue(executed.isEmpty());
+        assertThrows(IllegalStateException.class, () -> pipeline.sync(value -> value));
+    }
+
+    private void runAsyncStages() {
+        Runnable handOver;
+
+        while((handOver = asyncQueue.poll()) != null)
+            handOver.run();
+    }
+
+}
@@ -0,0 +1,127 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BetterPreciseAsyncRunnableTest {
+
+    private final TestServer server = new TestServer();
+    private final ManualTimer timer = new ManualTimer(server.getScheduler());
+    /**
+     * Executor of the task that holds runs until {@link #runQueued()}.
+     */
+    private final Queue<Runnable> queuedRuns = new ArrayDeque<>();
+    private int executions = 0;
+
+    @BeforeEach
+    void setUp() {
+        BetterExecutors.setTimer(timer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        BetterExecutors.setTimer(null);
+    }
+
+    @Test
+    void executesOnceEveryInterval() {
+        new BetterPreciseAsyncRunnable(server.getPlugin(), task -> executions++, 100, 100, TimeUnit.MILLISECONDS);
+
+        for(int interval = 1; interval <= 5; interval++) {
+            advance(2);
+            assertEquals(interval, executions);
+        }
+    }
+
+    @Test
+    void pauseKeepsRemainingTime() {
+        var runnable = new BetterPreciseAsyncRunnable(server.getPlugin(), task -> executions++, 200, 200, TimeUnit.MILLISECONDS);
+
+        advance(1);
+        runnable.pause();
+        assertEquals(150, runnable.getRemaining(TimeUnit.MILLISECONDS));
+
+        advance(10);
+        runnable.unpause();
+        advance(2);
+        assertEquals(0, executions);
+
+        advance(1);
+        assertEquals(1, executions);
+    }
+
+    @Test
+    void queuedRunOfReplacedPlanIsDropped() {
+        var runnable = new BetterPreciseAsyncRunnable(server.getPlugin(), task -> executions++, 100, 100, TimeUnit.MILLISECONDS);
+
+        runnable.setExecutor(queuedRuns::add);
+        server.tick(2);
+        timer.runDue(); // Run is queued in the executor
+
+        runnable.pause();
+        runnable.unpause(); // New plan is due at once
+        runQueued();
+        assertEquals(0, executions, "run of the cancelled plan was executed");
+
+        advanceWithExecutor(0);
+        assertEquals(1, executions);
+
+        for(int interval = 2; interval <= 6; interval++) {
+            advanceWithExecutor(2);
+            assertEquals(interval, executions, "executions after " + interval + " intervals");
+            assertEquals(1, timer.getScheduledRuns(), "task has more than one planned run");
+        }
+    }
+
+    @Test
+    void queuedRunOfStoppedTaskIsDroppedAfterRestart() {
+        var runnable = new BetterPreciseAsyncRunnable(server.getPlugin(), task -> executions++, 100, 100, TimeUnit.MILLISECONDS);
+
+        runnable.setExecutor(queuedRuns::add);
+        server.tick(2);
+        timer.runDue();
+
+        runnable.stop();
+        runnable.start(); // First run after the delay again
+        runQueued();
+        assertEquals(0, executions);
+
+        for(int interval = 1; interval <= 5; interval++) {
+            advanceWithExecutor(2);
+            assertEquals(interval, executions);
+            assertEquals(1, timer.getScheduledRuns());
+        }
+    }
+
+    /**
+     * Moves the clock by given number of ticks and executes due runs on the timer.
+     */
+    private void advance(int ticks) {
+        server.tick(ticks);
+        timer.runDue();
+    }
+
+    /**
+     * Moves the clock by given number of ticks and executes due runs through the executor.
+     */
+    private void advanceWithExecutor(int ticks) {
+        advance(ticks);
+        runQueued();
+    }
+
+    private void runQueued() {
+        Runnable run;
+
+        while((run = queuedRuns.poll()) != null)
+            run.run();
+    }
+
+}
@@ -0,0 +1,146 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BetterRunnableTest {
+
+    private final TestServer server = new TestServer();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void executesOnceEveryInterval() {
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 0, 5);
+
+        server.tick(20);
+
+        assertEquals(4, runnable.getExecutions());
+    }
+
+    @Test
+    void pauseKeepsTimeRemainingToNextRun() {
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+
+        server.tick(4); // Executed on tick 1, next run on tick 11
+        runnable.pause();
+
+        assertEquals(7, runnable.newDelayAfterPauseTask);
+
+        server.tick(20);
+        assertEquals(1, runnable.getExecutions(), "paused task was executed");
+
+        runnable.unpause(); // Tick 24, next run on tick 31
+        server.tick(6);
+        assertEquals(1, runnable.getExecutions());
+
+        server.tick(1);
+        assertEquals(2, runnable.getExecutions());
+
+        server.tick(10);
+        assertEquals(3, runnable.getExecutions());
+    }
+
+    @Test
+    void repeatedPausesDontCountPausedTime() {
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+
+        server.tick(4); // Executed on tick 1
+        runnable.pause();
+        server.tick(2);
+        runnable.unpause(); // Paused for 2 ticks, next run on tick 13
+
+        server.tick(3);
+        runnable.pause(); // Tick 9, 4 active ticks remain
+
+        assertEquals(2, runnable.pausedTime);
+        assertEquals(4, runnable.newDelayAfterPauseTask);
+
+        server.tick(11);
+        runnable.unpause(); // Tick 20, next run on tick 24
+
+        server.tick(3);
+        assertEquals(1, runnable.getExecutions());
+
+        server.tick(1);
+        assertEquals(2, runnable.getExecutions());
+        assertEquals(0, runnable.pausedTime, "paused time is reset by an execution");
+    }
+
+    @Test
+    void stopResetsExecutionsAndStartBeginsWithDelay() {
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 3, 5);
+
+        server.tick(8);
+        assertEquals(2, runnable.getExecutions());
+
+        assertTrue(runnable.stop());
+        assertTrue(runnable.isStopped());
+        assertEquals(0, runnable.getExecutions());
+
+        server.tick(10);
+        assertEquals(0, runnable.getExecutions());
+
+        runnable.start(); // Tick 18, first run on tick 21
+        server.tick(2);
+        assertEquals(0, runnable.getExecutions());
+
+        server.tick(1);
+        assertEquals(1, runnable.getExecutions());
+        assertFalse(runnable.isStopped());
+    }
+
+    @Test
+    void groupPauseHoldsTaskUntilAllGroupsAreUnpaused() {
+        var first = new BetterRunnableGroup();
+        var second = new BetterRunnableGroup();
+        var runnable = new BetterRunnable(server.getPlugin(), first, task -> {}, 0, 1);
+
+        second.addTask(runnable);
+        first.pauseAll();
+        second.pauseAll();
+        server.tick(5);
+        assertEquals(0, runnable.getExecutions());
+
+        first.unpauseAll();
+        server.tick(5);
+        assertTrue(runnable.isAnyPaused());
+        assertEquals(0, runnable.getExecutions());
+
+        second.unpauseAll();
+        server.tick(5);
+        assertFalse(runnable.isAnyPaused());
+        assertEquals(5, runnable.getExecutions());
+    }
+
+    @Test
+    void groupsCanBeChangedOnlyThroughGroups() {
+        var group = new BetterRunnableGroup();
+        var runnable = new BetterRunnable(server.getPlugin(), group, task -> {}, 0, 1);
+        var ungrouped = new BetterRunnable(server.getPlugin(), task -> {}, 0, 1);
+
+        assertThrows(UnsupportedOperationException.class, () -> runnable.getGroups().clear());
+        assertThrows(UnsupportedOperationException.class, () -> ungrouped.getGroups().add(group));
+
+        group.removeTask(ungrouped);
+        group.removeTask(runnable);
+        assertTrue(runnable.getGroups().isEmpty());
+        assertTrue(group.getTasks().isEmpty());
+
+        group.addTask(runnable);
+        group.addTask(ungrouped);
+        group.stopAll();
+        assertTrue(runnable.getGroups().isEmpty());
+        assertTrue(ungrouped.getGroups().isEmpty());
+        assertTrue(group.getTasks().isEmpty());
+    }
+
+}
@@ -0,0 +1,91 @@
+package me.kubaw208.betterrunnableapi;
+
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+class BetterStartupRampTest {
+
+    private final TestServer server = new TestServer();
+    private final List<Integer> executionTicks = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void firstRunsAreAdmittedGradually() {
+        var ramp = BetterStartupRamp.enable(server.getPlugin(), 20, 2);
+
+        for(int i = 0; i < 6; i++)
+            new BetterDelayedRunnable(server.getPlugin(), this::recordTick, 0);
+
+        server.tick(5);
+
+        assertIterableEquals(List.of(1, 1, 2, 2, 3, 3), executionTicks);
+        assertEquals(6, ramp.getAdmittedTasks());
+        assertEquals(4, ramp.getRampedTasks());
+    }
+
+    @Test
+    void exemptMovesRampedRunBack() {
+        BetterStartupRamp.enable(server.getPlugin(), 20, 1);
+
+        var first = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+        var ramped = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+
+        assertEquals(1, ramped.rampTicks);
+
+        BetterStartupRamp.exempt(ramped);
+        server.tick(1);
+
+        assertEquals(1, first.getExecutions());
+        assertEquals(1, ramped.getExecutions());
+    }
+
+    @Test
+    void exemptDoesNotDelayUnmovedRuns() {
+        BetterStartupRamp.enable(server.getPlugin(), 20, 10);
+
+        var exempted = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+        var critical = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+        var inCriticalGroup = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+
+        assertEquals(0, exempted.rampTicks, "run that was not moved counts as moved");
+
+        BetterStartupRamp.exempt(exempted);
+        critical.setPriority(TaskPriority.CRITICAL);
+        new BetterRunnableGroup().setPriority(TaskPriority.CRITICAL).addTask(inCriticalGroup);
+        server.tick(1);
+
+        assertEquals(1, exempted.getExecutions());
+        assertEquals(1, critical.getExecutions());
+        assertEquals(1, inCriticalGroup.getExecutions());
+    }
+
+    @Test
+    void runsRequestedAfterWindowAreNotMoved() {
+        BetterStartupRamp.enable(server.getPlugin(), 5, 1);
+
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 10, 10);
+
+        assertEquals(0, runnable.rampTicks);
+
+        BetterStartupRamp.exempt(runnable);
+        server.tick(10);
+
+        assertEquals(1, runnable.getExecutions());
+    }
+
+    private void recordTick(BetterTask task) {
+        executionTicks.add(server.getCurrentTick());
+    }
+
+}
@@ -0,0 +1,109 @@
+package me.kubaw208.betterrunnableapi;
+
+import me.kubaw208.betterrunnableapi.structs.PauseType;
+import me.kubaw208.betterrunnableapi.structs.TaskPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BetterTaskDispatcherTest {
+
+    private static final long MILLISECOND = 1_000_000;
+
+    private final TestServer server = new TestServer();
+    private BetterTaskDispatcher dispatcher;
+    private int delayedExecutions = 0;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = BetterTaskDispatcher.enable(server.getPlugin());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void dispatchedTasksKeepTheirTiming() {
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 0, 5);
+        var delayedRunnable = new BetterDelayedRunnable(server.getPlugin(), task -> delayedExecutions++, 300);
+
+        assertEquals(2, dispatcher.getScheduledTasks());
+        assertEquals(1, server.getScheduler().getPendingTasks(), "only the driver of the dispatcher is in the scheduler");
+
+        server.tick(299);
+        assertEquals(60, runnable.getExecutions());
+        assertEquals(0, delayedExecutions);
+
+        server.tick(1);
+        assertEquals(1, delayedExecutions);
+        assertTrue(delayedRunnable.isStopped());
+    }
+
+    @Test
+    void disableHandsTasksOverToTheScheduler() {
+        var runnable = new BetterRunnable(server.getPlugin(), task -> {}, 0, 10);
+
+        server.tick(4); // Executed on tick 1, next run on tick 11
+        BetterTaskDispatcher.disable(server.getPlugin());
+
+        assertNull(BetterTaskDispatcher.get(server.getPlugin()));
+
+        server.tick(6);
+        assertEquals(1, runnable.getExecutions());
+
+        server.tick(1);
+        assertEquals(2, runnable.getExecutions());
+    }
+
+    @Test
+    void tickBudgetDefersLowerPrioritiesAndShedsLowPriority() {
+        dispatcher.setTickBudget(1);
+
+        var lowGroup = new BetterRunnableGroup().setPriority(TaskPriority.LOW);
+        var critical = new BetterRunnable(server.getPlugin(), PauseType.AUTOMATIC, TaskPriority.CRITICAL, null, this::takeMillisecond, 0, 1);
+        var normal = new BetterRunnable(server.getPlugin(), this::takeMillisecond, 0, 1);
+        var low = new BetterRunnable(server.getPlugin(), lowGroup, this::takeMillisecond, 0, 1);
+
+        server.tick(10);
+
+        assertEquals(10, critical.getExecutions(), "critical tasks are never postponed");
+        assertEquals(0, normal.getExecutions());
+        assertEquals(0, low.getExecutions());
+        assertEquals(10, dispatcher.getDeferredExecutions(TaskPriority.NORMAL));
+        assertEquals(10, dispatcher.getShedExecutions(TaskPriority.LOW));
+        assertEquals(0, dispatcher.getDeferredExecutions(TaskPriority.LOW));
+    }
+
+    @Test
+    void groupBudgetCountsOnlyDeferredExecutions() {
+        var lowGroup = new BetterRunnableGroup().setPriority(TaskPriority.LOW).setTickBudget(1);
+        var normalGroup = new BetterRunnableGroup().setTickBudget(1);
+
+        try {
+            for(int i = 0; i < 3; i++) {
+                new BetterRunnable(server.getPlugin(), lowGroup, this::takeMillisecond, 0, 1);
+                new BetterRunnable(server.getPlugin(), normalGroup, this::takeMillisecond, 0, 1);
+            }
+
+            server.tick(10);
+
+            assertEquals(0, lowGroup.getDeferredExecutions(), "shed executions are not deferred");
+            assertEquals(20, dispatcher.getShedExecutions(TaskPriority.LOW));
+            assertEquals(20, normalGroup.getDeferredExecutions());
+        } finally {
+            lowGroup.setTickBudget(0);
+            normalGroup.setTickBudget(0);
+        }
+    }
+
+    private void takeMillisecond(BetterTask task) {
+        server.getScheduler().advanceTime(MILLISECOND);
+    }
+
+}
@@ -0,0 +1,158 @@
+package me.kubaw208.betterrunnableapi;
+
+import me.kubaw208.betterrunnableapi.scheduler.InMemoryTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer for {@link BetterPreciseAsyncRunnable} that follows the clock of an {@link InMemoryTaskScheduler}.
+ * Scheduled actions are executed by {@link #runDue()} on the calling thread. Only one-shot scheduling is supported.
+ */
+final class ManualTimer extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final InMemoryTaskScheduler scheduler;
+    private final List<Run> runs = new ArrayList<>();
+
+    ManualTimer(InMemoryTaskScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Executes all actions that are due on the clock of the scheduler, including actions that become due while doing so.
+     */
+    void runDue() {
+        while(true) {
+            Run due = null;
+
+            for(var run : runs)
+                if(run.deadline <= scheduler.nanoTime() && (due == null || run.deadline < due.deadline))
+                    due = run;
+
+            if(due == null) return;
+
+            runs.remove(due);
+            due.done = true;
+            due.action.run();
+        }
+    }
+
+    /**
+     * Number of actions that are scheduled and not cancelled.
+     */
+    int getScheduledRuns() {
+        return runs.size();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable action, long delay, TimeUnit unit) {
+        var run = new Run(action, scheduler.nanoTime() + unit.toNanos(delay));
+
+        runs.add(run);
+        return run;
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable action, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable action, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void execute(Runnable action) {
+        schedule(action, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void shutdown() {}
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return true;
+    }
+
+    private final class Run implements ScheduledFuture<Object> {
+
+        private final Runnable action;
+        private final long deadline;
+        private boolean cancelled = false;
+        private boolean done = false;
+
+        private Run(Runnable action, long deadline) {
+            this.action = action;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - scheduler.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if(done) return false;
+
+            cancelled = true;
+            done = true;
+            runs.remove(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+
+    }
+
+}
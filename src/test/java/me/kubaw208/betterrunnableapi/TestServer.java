@@ -0,0 +1,120 @@
+package me.kubaw208.betterrunnableapi;
+
+import me.kubaw208.betterrunnableapi.scheduler.InMemoryTaskScheduler;
+import me.kubaw208.betterrunnableapi.scheduler.TaskSchedulers;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Headless server for tests. Every instance creates a new enabled plugin with its own {@link InMemoryTaskScheduler},
+ * so state of the library doesn't leak between tests. Must be created on the thread that runs the test.
+ */
+final class TestServer {
+
+    private static final Logger logger = Logger.getLogger("TestServer");
+    private static Server server;
+
+    private final InMemoryTaskScheduler scheduler = new InMemoryTaskScheduler();
+    private final TestPlugin plugin;
+
+    TestServer() {
+        plugin = new TestPlugin(new JavaPluginLoader(server()));
+        TaskSchedulers.set(plugin, scheduler);
+    }
+
+    JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    InMemoryTaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    int getCurrentTick() {
+        return scheduler.getCurrentTick();
+    }
+
+    /**
+     * Moves the scheduler forward by given number of ticks.
+     */
+    void tick(int ticks) {
+        scheduler.tick(ticks);
+    }
+
+    /**
+     * Simulates disabling of the plugin by the server.
+     */
+    void disablePlugin() {
+        plugin.disable();
+    }
+
+    /**
+     * Stops all tasks of the plugin and releases per-plugin state of the library.
+     */
+    void close() {
+        BetterTaskRegistry.stopAll(plugin);
+        BetterTaskDispatcher.disable(plugin);
+        BetterMainThreadQueue.disable(plugin);
+        BetterPhaseSpreader.disable(plugin);
+        BetterStartupRamp.disable(plugin);
+        scheduler.cancelAll();
+        TaskSchedulers.set(plugin, null);
+    }
+
+    /**
+     * Installs a stand-in Bukkit server on the first call. Bukkit accepts only one server per JVM.
+     */
+    private static synchronized Server server() {
+        if(server == null) {
+            server = (Server) Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class[] {Server.class}, (proxy, method, args) -> invokeServer(method));
+            Bukkit.setServer(server);
+        }
+
+        return server;
+    }
+
+    private static Object invokeServer(Method method) {
+        return switch(method.getName()) {
+            case "getLogger" -> logger;
+            case "getName", "getVersion", "getBukkitVersion" -> "Test";
+            case "hashCode" -> 0;
+            case "equals" -> false;
+            case "toString" -> "TestServer";
+            default -> defaultValue(method.getReturnType());
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if(type == boolean.class) return false;
+        if(type == int.class) return 0;
+        if(type == long.class) return 0L;
+        if(type == double.class) return 0D;
+        if(type == float.class) return 0F;
+        return null;
+    }
+
+    /**
+     * Plugin created with the initialization constructor that Bukkit provides for use outside a running server.
+     */
+    static final class TestPlugin extends JavaPlugin {
+
+        private TestPlugin(JavaPluginLoader loader) {
+            super(loader, new PluginDescriptionFile("Test", "1.0", TestPlugin.class.getName()), new File("build/test-plugin"), new File("build/test-plugin.jar"));
+            setEnabled(true);
+        }
+
+        private void disable() {
+            setEnabled(false);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package me.kubaw208.betterrunnableapi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private final TestServer server = new TestServer();
+    private final TimingWheel wheel = new TimingWheel();
+    private final Map<TimingWheel.Entry, Long> dueTicks = new HashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void entriesAreDueExactlyOnTheirDeadlineOnEveryLevel() {
+        long[] delays = {1, 255, 256, 257, 300, 16_383, 16_384, 20_000, 1_048_576, 1_100_000};
+        var entries = new TimingWheel.Entry[delays.length];
+
+        for(int i = 0; i < delays.length; i++) {
+            entries[i] = entry();
+            wheel.schedule(entries[i], delays[i]);
+        }
+
+        assertEquals(delays.length, wheel.size());
+        advance(1_100_000);
+
+        for(int i = 0; i < delays.length; i++)
+            assertEquals(delays[i], dueTick(entries[i]), "entry with delay " + delays[i]);
+
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void entriesScheduledLaterCascadeToTheirDeadline() {
+        var entry = entry();
+
+        advance(100);
+        wheel.schedule(entry, 16_300);
+        advance(16_300);
+
+        assertEquals(16_400, dueTick(entry));
+    }
+
+    @Test
+    void rescheduleMovesEntryAndCancelRemovesIt() {
+        var moved = entry();
+        var cancelled = entry();
+
+        wheel.schedule(moved, 500);
+        wheel.schedule(moved, 40);
+        wheel.schedule(cancelled, 300);
+
+        assertEquals(2, wheel.size());
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        advance(600);
+
+        assertEquals(40, dueTick(moved));
+        assertNull(dueTicks.get(cancelled));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deferredEntriesAreDueFirstInTheNextTick() {
+        var deferred = entry();
+        var next = entry();
+
+        wheel.schedule(deferred, 1);
+        wheel.schedule(next, 2);
+        wheel.advance();
+
+        var polled = wheel.pollDue();
+
+        assertEquals(deferred, polled);
+        wheel.defer(polled);
+        wheel.finishTick();
+        wheel.advance();
+
+        assertEquals(deferred, wheel.pollDue());
+        assertEquals(next, wheel.pollDue());
+        assertNull(wheel.pollDue());
+    }
+
+    /**
+     * Creates an entry of a stopped task. Entries without a task are heads of the wheel lists.
+     */
+    private TimingWheel.Entry entry() {
+        var task = new BetterDelayedRunnable(server.getPlugin(), runnable -> {}, 1);
+
+        task.stop();
+        return new TimingWheel.Entry(wheel, task);
+    }
+
+    /**
+     * Tick in which the entry was due or -1 if it was never due.
+     */
+    private long dueTick(TimingWheel.Entry entry) {
+        return dueTicks.getOrDefault(entry, -1L);
+    }
+
+    private void advance(int ticks) {
+        for(int i = 0; i < ticks; i++) {
+            wheel.advance();
+
+            TimingWheel.Entry entry;
+
+            while((entry = wheel.pollDue()) != null)
+                dueTicks.put(entry, wheel.getCurrentTick());
+
+            wheel.finishTick();
+        }
+    }
+
+}